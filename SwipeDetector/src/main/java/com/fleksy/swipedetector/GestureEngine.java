@@ -0,0 +1,1306 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Bounds;
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.AreaIndex;
+import com.fleksy.swipedetector.tool.Calculator;
+import com.fleksy.swipedetector.tool.GestureMetrics;
+import com.fleksy.swipedetector.tool.GestureRecorder;
+import com.fleksy.swipedetector.tool.GestureRecording;
+import com.fleksy.swipedetector.tool.Scheduler;
+import com.fleksy.swipedetector.tool.Timer;
+import com.fleksy.swipedetector.tool.TouchSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The platform neutral core of the OnGestureListener: taps, double taps, holds, special areas,
+ * multi touches and the refinery, driven by TouchSource events and timed by a Scheduler. It
+ * runs as is on a plain JVM, for tests, benchmarks and replaying recordings on a server, while
+ * OnGestureListener adapts it to Android's MotionEvent, Handler and RectF.
+ */
+public abstract class GestureEngine extends TouchRefinery {
+
+    private static final int RETAINED_HEAD = 8; // Points kept from the start of long holds and drags
+    private static final int MAX_REFINING = 32; // Touches the background refinery can fall behind by
+    private static final int INITIAL_SAMPLES = 16; // Samples per pointer a move event is expected to hold
+
+    private final Scheduler scheduler;
+    private final Timer doubleTapTimer = new Timer(new Runnable() {
+        @Override
+        public void run() {
+            setDoubleTapObj(null);
+        }
+    });
+    private final Timer specialHoldTimer = new Timer(new Runnable() {
+        @Override
+        public void run() {
+            if (getTouchAt(specialID) != null && getTouchCount() > 0) {
+                heldSpecial = onSpecialHold(specialHoldArea);
+            }
+        }
+    });
+    private final Timer preHolding = new Timer(new Runnable() {
+        @Override
+        public void run() {
+            heldCount = 0;
+            final Gesture heldTouch = getTouchAt(heldID);
+            if (heldTouch != null) {
+                if (debugging()) {
+                    log("preHolding");
+                }
+                onPreHold(heldTouch);
+                scheduler.schedule(onHolding, holdDelay(heldTouch));
+            }
+        }
+    });
+    private final Timer onHolding = new Timer(new Runnable() {
+        @Override
+        public void run() {
+            isHolding = true;
+            setDoubleTapObj(null);
+            final Gesture heldTouch = getTouchAt(heldID);
+            if (heldTouch != null) {
+                if (debugging()) {
+                    log("onHolding");
+                }
+                heldCount++;
+                heldTouch.setHold(true);
+                retainPoints(heldTouch);
+                if (heldCount == 1) {
+                    count(GestureMetrics.HOLDS);
+                }
+                final long start = startTiming();
+                onHold(heldTouch);
+                stopTiming(GestureMetrics.CALLBACK, start);
+                if (repeatHold(heldTouch)) {
+                    scheduler.schedule(onHolding, postHoldDelay(heldTouch));
+                }
+            }
+        }
+    });
+
+    private int recentID;
+
+    private boolean doubleTap;
+
+    private int heldID;
+    private int heldCount;
+    private boolean heldDrag;
+    private boolean isHolding;
+
+    private int specialID;
+    private Bounds specialArea;
+    private boolean useLatest;
+    private boolean isSpecial;
+    private boolean wasSpecial;
+    private boolean ranSpecial;
+    private boolean heldSpecial;
+    private Bounds specialHoldArea;
+    private Direction specialDir;
+
+    private int areaID;
+    private ArrayList<Bounds> areas = new ArrayList<>();
+    private final AreaIndex areaIndex = new AreaIndex();
+    private final AreaIndex specialIndex = new AreaIndex();
+    private final ArrayList<Gesture> freeing = new ArrayList<>();
+
+    private boolean isMultiTouch;
+
+    private GestureRecorder recorder;
+    private float[] sampleXs = new float[INITIAL_SAMPLES];    // Samples of one pointer in a move event
+    private float[] sampleYs = new float[INITIAL_SAMPLES];
+    private long[] sampleTimes = new long[INITIAL_SAMPLES];
+    private RefineryWorker worker;
+
+    /**
+     * @param pixelSize Size of a pixel
+     * @param scheduler Scheduler timing holds and double taps, a TimerWheel drives them from the
+     *                  event times alone so replays are deterministic
+     */
+    public GestureEngine(float pixelSize, Scheduler scheduler) {
+        super(pixelSize);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Handles a touch event.
+     *
+     * @param event Event to handle, only read for the duration of the call
+     * @return False if the action isn't one the engine handles
+     */
+    public final boolean onTouchEvent(TouchSource event) {
+        switch (event.getAction()) {
+            case TouchSource.DOWN:
+                return onDown(getID(event), event);
+            case TouchSource.MOVE:
+                if (ignoreEvent(getID(event))) {
+                    return onCancel();
+                }
+                return onMove(event);
+            case TouchSource.UP:
+                if (ignoreEvent(getID(event))) {
+                    return onCancel();
+                }
+                return onUp(getID(event), event);
+            case TouchSource.CANCEL:
+                return onCancel();
+        }
+        return false;
+    }
+
+    /**
+     * Starts or stops recording the pointer events this engine handles.
+     *
+     * @param recorder Recorder to write the events to, null to stop recording
+     */
+    public final void setRecorder(GestureRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    private void record(int type, int pointerID, float x, float y, long eventTime) {
+        if (recorder != null) {
+            recorder.record(type, pointerID, x, y, eventTime);
+        }
+    }
+
+    /**
+     * Feeds every remaining event of a recording through this engine, as if they came from
+     * onTouchEvent(). Holds and double taps are timed by the scheduler, so with a TimerWheel they
+     * fire at the recorded times however fast the replay runs, while a wall clock scheduler only
+     * replays them the same way at the recorded pace.
+     *
+     * @param recording Recording written by a GestureRecorder
+     */
+    public final void replay(GestureRecording recording) {
+        while (recording.next()) {
+            final int pointerID = recording.getPointerId();
+            final float x = recording.getX();
+            final float y = recording.getY();
+            switch (recording.getType()) {
+                case GestureRecorder.DOWN:
+                    onDown(pointerID, makeRawX(x), makeRawY(y), x, y, recording.getTime());
+                    break;
+                case GestureRecorder.MOVE:
+                    onMoveSample(pointerID, x, y, recording.getTime());
+                    break;
+                case GestureRecorder.FRAME:
+                    onMoved(recording.getTime());
+                    break;
+                case GestureRecorder.UP:
+                    if (ignoreEvent(pointerID)) {
+                        onCancel();
+                    } else {
+                        onUp(pointerID, x, y, recording.getTime());
+                    }
+                    break;
+                case GestureRecorder.CANCEL:
+                    onCancel();
+                    break;
+            }
+        }
+    }
+
+    public final int getRecentID() {
+        return recentID;
+    }
+
+    private int getID(final TouchSource event) {
+        return event.getPointerId(event.getActionIndex());
+    }
+
+    public final int getHeldCount() {
+        return heldCount;
+    }
+
+    public final boolean isHolding() {
+        return isHolding;
+    }
+
+    public final boolean isDoubleTap() {
+        return doubleTap;
+    }
+
+    public final boolean canHoldDrag() {
+        return heldDrag;
+    }
+
+    public final void enableHeldDrag() {
+        heldDrag = true;
+    }
+
+    public final boolean isSpecialDragging() {
+        return isSpecial;
+    }
+
+    public final Bounds getSpecialBounds() {
+        return specialArea;
+    }
+
+    public final boolean inSpecialArea() {
+        return specialArea != null;
+    }
+
+    public final boolean isMultiTouch() {
+        return isMultiTouch;
+    }
+
+    public final boolean hasSpecialDir() {
+        return specialDir != Direction.UNDEFINED;
+    }
+
+    protected final boolean isSpecialArea(Bounds area) {
+        return inSpecialArea() && area.equals(specialArea);
+    }
+
+    public final boolean inAnArea() {
+        return !areas.isEmpty();
+    }
+
+    protected final boolean isInArea(Bounds area) {
+        return inAnArea() && areas.contains(area);
+    }
+
+    protected final boolean isInArea(Gesture touch) {
+        return touch.getId() == areaID;
+    }
+
+    /**
+     * Enables the area index. getAreaBounds() and getSpecialAreaBounds() are then indexed on a
+     * grid that is only rebuilt when they return another array, or after invalidateAreas(), so a
+     * down only tests the areas near it instead of all of them.
+     *
+     * @return True to index the areas, False to test each of them on every down by default
+     */
+    protected boolean indexAreas() {
+        return false;
+    }
+
+    /**
+     * Rebuilds the area index on the next down, for when the bounds returned by getAreaBounds() or
+     * getSpecialAreaBounds() were moved without returning a new array. Overrides must call
+     * through.
+     */
+    protected void invalidateAreas() {
+        areaIndex.invalidate();
+        specialIndex.invalidate();
+    }
+
+    /**
+     * Bounds the points kept by touches that are held or special dragging, as these can last for
+     * any amount of time. Such touches then keep their first few points and the given number of
+     * most recent ones, see Gesture.setRetention().
+     *
+     * @return Number of recent points kept by long touches, 0 to keep every point by default
+     */
+    protected int getMaxHeldPoints() {
+        return 0;
+    }
+
+    private void retainPoints(final Gesture touch) {
+        if (getMaxHeldPoints() > 0 && !touch.isRetaining()) {
+            touch.setRetention(RETAINED_HEAD, getMaxHeldPoints());
+        }
+    }
+
+    private void clearAltThreads() {
+        scheduler.cancel(doubleTapTimer);
+        scheduler.cancel(specialHoldTimer);
+    }
+
+    protected void clearMainThreads() {
+        scheduler.cancel(preHolding);
+        scheduler.cancel(onHolding);
+    }
+
+    private Gesture addTouch(final Gesture adding) {
+        setTouchAt(adding.getId(), adding);
+        if (debugging()) {
+            log("addTouch");
+        }
+        return adding;
+    }
+
+    private Gesture removeTouch(final Gesture removing) {
+        setTouchAt(removing.getId(), null);
+        retractPrediction(removing);                    // Left on touches that were never refined
+        closeStream(removing);
+        if (debugging()) {
+            log("removeTouch");
+        }
+        return removing;
+    }
+
+    private boolean onDown(final int pointerID, final TouchSource event) {
+        final float x = event.getX(event.getActionIndex());
+        final float y = event.getY(event.getActionIndex());
+        return onDown(pointerID, x, y, refineX(x), refineY(y), event.getEventTime());
+    }
+
+    private boolean onDown(final int pointerID, final float rawX, final float rawY,
+                           final float x, final float y, final long eventTime) {
+        scheduler.advanceTo(eventTime);
+        deliverRefined();
+        final long start = startTiming();
+        record(GestureRecorder.DOWN, pointerID, x, y, eventTime);
+        if (getTouchCount() <= 0) {
+            resetVariables();
+        }
+        if (debugging()) {
+            log("onDown----------------" + pointerID + " " + getTouchCount());
+        }
+        Gesture parent = getTouchAt(pointerID - 1);
+        if (useLatest || (pointerID == 0 && pointerID != getTouchCount())) {
+            parent = getLatestTouch();
+            if (useLatest && parent != null && parent.refined()) {
+                parent = null;
+            }
+        }
+        recentID = pointerID;
+        Gesture latest = preHolding(addTouch(doubleTapping(preDown(obtainGesture(
+                createTag(rawX, rawY, x, y), pointerID, x, y, eventTime, parent)))));
+        if (parent != null && parent.canLiberate(maxMultiTouch())) {
+            latest.setParent(null);
+            liberateTouches(parent.getLiberator());
+            useLatest = true;
+        }
+        stopTiming(GestureMetrics.DOWN, start);
+        return true;
+    }
+
+    private Gesture preDown(final Gesture onDown) {
+        determineSpecial(onDown);
+        determineArea(onDown);
+        if (canDoubleTap(onDown)) {
+            if (debugging()) {
+                log("onDoubleTap");
+            }
+            setDoubleTapObj(null);
+            doubleTap = true;
+            return onTap(onDoubleTap(onDown));
+        }
+        if (debugging()) {
+            log("onTap");
+        }
+        setDoubleTapObj(getDoubleTapObj(onDown));
+        return onTap(onDown);
+    }
+
+    private void determineSpecial(final Gesture onDown) {
+        if (canSpecialize(onDown)) {
+            specialArea = null;
+            final Bounds[] areas = getSpecialAreaBounds();
+            if (indexAreas()) {
+                final int index = specialIndex.update(areas).find(onDown.getDownX(), onDown.getDownY());
+                if (index >= 0) {
+                    specialArea = areas[index];
+                    specialID = onDown.getId();
+                    if (debugging()) {
+                        log("canSpecialize " + specialArea);
+                    }
+                }
+                return;
+            }
+            for (final Bounds area : areas) {
+                if (Calculator.contains(onDown.getDownX(), onDown.getDownY(), area)) {
+                    specialArea = area;
+                    specialID = onDown.getId();
+                    if (debugging()) {
+                        log("canSpecialize " + area);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private void determineArea(final Gesture onDown) {
+        if (canBeInAnArea(onDown)) {
+            areas.clear();
+            final Bounds[] rects = getAreaBounds();
+            if (indexAreas()) {
+                if (areaIndex.update(rects).findAll(onDown.getDownX(), onDown.getDownY(), areas) > 0) {
+                    areaID = onDown.getId();
+                }
+                return;
+            }
+            for (final Bounds area : rects) {
+                if (Calculator.contains(onDown.getDownX(), onDown.getDownY(), area)) {
+                    areas.add(area);
+                    areaID = onDown.getId();
+                }
+            }
+        }
+    }
+
+    private boolean canDoubleTap(final Gesture onDown) {
+        if (debugging()) {
+            log("canDoubleTap " + getDoubleTapObj());
+        }
+        if (getDoubleTapObj() == null) {
+            return false;
+        }
+        final Object latestObj = getDoubleTapObj(onDown);
+        return latestObj != null && getDoubleTapObj().equals(latestObj);
+    }
+
+    private Gesture doubleTapping(final Gesture onDown) {
+        clearAltThreads();
+        if (getDoubleTapObj() != null) {
+            if (debugging()) {
+                log("doubleTapping");
+            }
+            scheduler.schedule(doubleTapTimer, doubleTapDelay(onDown));
+        }
+        return onDown;
+    }
+
+    private Gesture preHolding(final Gesture onDown) {
+        if (canHold(onDown)) {
+            clearMainThreads();
+            heldID = onDown.getId();
+            scheduler.schedule(preHolding, preHoldDelay(onDown));
+        }
+        return onDown;
+    }
+
+    /**
+     * Appends the samples of a move event pointer by pointer, so every touch is looked up once
+     * and takes its samples in a single call. Timers due during the event fire once all of its
+     * samples were added.
+     */
+    private boolean onMove(final TouchSource event) {
+        if (debugging()) {
+            log("onMove");
+        }
+        final int historySize = event.getHistorySize();
+        final int samples = historySize + 1;
+        final int pointerCount = event.getPointerCount();
+        if (sampleTimes.length < samples) {
+            final int capacity = Math.max(samples, sampleTimes.length * 2);
+            sampleXs = new float[capacity];
+            sampleYs = new float[capacity];
+            sampleTimes = new long[capacity];
+        }
+        for (int h = 0; h < historySize; h++) {
+            sampleTimes[h] = event.getHistoricalEventTime(h);
+        }
+        sampleTimes[historySize] = event.getEventTime();
+        scheduler.advanceTo(sampleTimes[0]);
+
+        final float offsetX = xOffset();
+        final float offsetY = yOffset();
+        for (int i = 0; i < pointerCount; i++) {
+            final int pointerID = event.getPointerId(i);
+            final Gesture touch = getTouchAt(pointerID);
+            if (touch == null) {
+                continue;
+            }
+            for (int h = 0; h < historySize; h++) {
+                sampleXs[h] = event.getHistoricalX(i, h);
+                sampleYs[h] = event.getHistoricalY(i, h);
+            }
+            sampleXs[historySize] = event.getX(i);
+            sampleYs[historySize] = event.getY(i);
+            touch.addPoints(Gesture.BODY, sampleXs, sampleYs, sampleTimes, samples, offsetX, offsetY);
+            if (recorder != null) {
+                for (int h = 0; h < samples; h++) {
+                    recorder.record(GestureRecorder.MOVE, pointerID,
+                            sampleXs[h] + offsetX, sampleYs[h] + offsetY, sampleTimes[h]);
+                }
+            }
+        }
+        scheduler.advanceTo(event.getEventTime());
+        return onMoved(event.getEventTime());
+    }
+
+    private void onMoveSample(final int pointerID, final float x, final float y, final long eventTime) {
+        scheduler.advanceTo(eventTime);
+        final Gesture touch = getTouchAt(pointerID);
+        if (touch != null) {
+            record(GestureRecorder.MOVE, pointerID, x, y, eventTime);
+            touch.addPoint(Gesture.BODY, x, y, eventTime);
+        }
+    }
+
+    /**
+     * Runs once all the samples of a move event were added.
+     */
+    private boolean onMoved(final long eventTime) {
+        deliverRefined();
+        final long start = startTiming();
+        record(GestureRecorder.FRAME, -1, 0, 0, eventTime);
+        final Gesture[] touches = getTouches();
+        final boolean streaming = !refiningInBackground() && classifyingByRules();
+        for (long slots = streaming ? getActiveSlots() : 0; slots != 0; slots &= slots - 1) {
+            final Gesture touch = touches[Long.numberOfTrailingZeros(slots)];
+            streamPoints(touch);
+            predict(touch, swipeFactor(), invertHorizontalSwipes());
+        }
+        if (!isHolding && specialArea != null && getTouchAt(specialID) != null) {
+            if (debugging()) {
+                log("onSpecialDrag " + specialDir);
+            }
+            onSpecialDrag(getTouchAt(specialID), specialArea);
+        } else if (heldDrag && getTouchAt(heldID) != null) {
+            if (debugging()) {
+                log("onHeldDrag");
+            }
+            final Gesture heldTouch = getTouchAt(heldID);
+            setTouchAt(heldID, onHeldDrag(heldTouch,
+                    makeRawX(heldTouch.getUpX()),
+                    makeRawY(heldTouch.getUpY())));
+        }
+        stopTiming(GestureMetrics.MOVE, start);
+        return true;
+    }
+
+    private void onSpecialDrag(Gesture onDrag, final Bounds area) {
+        final float moveX = onDrag.getUpX();
+        final float moveY = onDrag.getUpY();
+        isSpecial = !Calculator.contains(moveX, moveY, specialArea);
+        if (isSpecial) {
+            retainPoints(onDrag);
+            if (!hasSpecialDir()) {
+                specialDir = Calculator.getDirection(onDrag.getDeltaX(), onDrag.getDeltaY(), false);
+            }
+            setDoubleTapObj(null);
+            clearMainThreads();
+            final float delta;
+            switch (specialDir) {
+                case LEFT:
+                    delta = area.left - moveX;
+                    break;
+                case UP:
+                    delta = area.top - moveY;
+                    break;
+                case RIGHT:
+                    delta = moveX - area.right;
+                    break;
+                case DOWN:
+                    delta = moveY - area.bottom;
+                    break;
+                default:
+                    return;
+            }
+            if (inSpecialHold(onDrag, area, specialDir)) {
+                if (!ranSpecial) {
+                    ranSpecial = true;
+                    specialHoldArea = area;
+                    scheduler.schedule(specialHoldTimer, getSpecialDelay(area));
+                }
+            } else {
+                onSpecialDrag(onDrag, area, delta, specialDir);
+                ranSpecial = false;
+                clearAltThreads();
+            }
+        } else {
+            onSpecialArea(onDrag, area);
+        }
+    }
+
+    private boolean onUp(final int pointerID, final TouchSource event) {
+        return onUp(pointerID,
+                refineX(event.getX(event.getActionIndex())),
+                refineY(event.getY(event.getActionIndex())),
+                event.getEventTime());
+    }
+
+    private boolean onUp(final int pointerID, final float x, final float y, final long eventTime) {
+        scheduler.advanceTo(eventTime);
+        deliverRefined();
+        final long start = startTiming();
+        record(GestureRecorder.UP, pointerID, x, y, eventTime);
+        final Gesture onUp = getTouchAt(pointerID);
+        onUp.addPoint(Gesture.TAIL, x, y, eventTime);
+        if (onUp.getId() == heldID) {
+            if (debugging()) {
+                log("onProcessHold");
+            }
+            clearMainThreads();
+            onProcessHold(onUp);
+        }
+        if (onUp.getId() == specialID) {
+            if (debugging()) {
+                log("onProcessSpecial");
+            }
+            wasSpecial = onProcessSpecial(onUp, specialArea, specialDir, heldSpecial);
+        }
+        if (!isHolding && !wasSpecial) {
+            if (canMultiTouch(onUp)) {
+                if (debugging()) {
+                    log("onMultiTouch");
+                }
+                final long callback = startTiming();
+                final boolean multiTouch = onMultiTouch(getTouches());
+                stopTiming(GestureMetrics.CALLBACK, callback);
+                if (multiTouch) {
+                    count(GestureMetrics.MULTI_TOUCHES);
+                }
+                isMultiTouch = multiTouch || isMultiTouch;
+            }
+            if (!isMultiTouch && !onUp.refined()) {
+                refineReleased(onUp);
+            }
+        }
+        removeTouch(onUp);
+        if (getTouchCount() == 0) {
+            clearMainThreads();
+            onRelease(onUp);
+            recycleGestures();
+        }
+        if (debugging()) {
+            log("onUp------------------" + pointerID + " " + getTouchCount());
+        }
+        stopTiming(GestureMetrics.UP, start);
+        return true;
+    }
+
+    /**
+     * Enables refining in the background. Touches that are released on their own, with no other
+     * touch attached to them, are then copied and handed to a worker thread that runs the
+     * refinery. The results are delivered back on this thread, in the order the touches were
+     * released and carrying their original event times. Classification and the work done in
+     * onProcessTouch() no longer add up on a single input event. While this is enabled:
+     * <ul>
+     * <li>onCheckedTap(), onPhantomSwipe(), onDetectedSwipe(), ignoreSwipe() and getTimeLimit()
+     * may be called on the worker thread.</li>
+     * <li>onRelease() can be called before the released touch was processed, and receives the
+     * touch as it was drawn rather than refined.</li>
+     * <li>Touches that are part of a multi touch, or that are forced through the refinery, are
+     * still refined on this thread once the worker caught up, so results stay in order.</li>
+     * <li>Streaming is skipped, as the scan no longer runs on this thread, and so are predictions.
+     * A touch still holding a prediction made before this was enabled has it retracted on this
+     * thread as it is handed over, so onPredictedSwipe() and onRetractedSwipe() are only ever
+     * called on this thread.</li>
+     * </ul>
+     *
+     * @return True to refine released touches on a worker thread, False by default
+     */
+    protected boolean refiningInBackground() {
+        return false;
+    }
+
+    /**
+     * Delivers every result still held by the background refinery and stops its thread.
+     * It is started again by the next release if refiningInBackground() is still enabled.
+     */
+    public final void stopBackgroundRefining() {
+        if (worker != null) {
+            awaitRefinery();
+            worker.shutdown();
+            worker = null;
+        }
+    }
+
+    private void refineReleased(final Gesture touch) {
+        if (refiningInBackground() && !touch.hasParent() && !touch.hasChildren()) {
+            if (worker == null) {
+                worker = new RefineryWorker(new RefineryWorker.Refiner() {
+                    @Override
+                    public List<Gesture> refine(Gesture touch) {
+                        return refinery(touch, swipeFactor(), invertHorizontalSwipes());
+                    }
+
+                    @Override
+                    public void onRefined() {
+                        onRefinedInBackground();
+                    }
+                }, MAX_REFINING);
+            }
+            retractPrediction(touch);                   // The worker can't confirm it on this thread
+            final Gesture copy = copyGesture(touch);
+            if (worker.submit(copy)) {
+                recycle(touch);                         // Only the copy gets refined
+                return;
+            }
+            recycle(copy);
+        }
+        awaitRefinery();
+        processAndRecycle(refinery(touch, swipeFactor(), invertHorizontalSwipes()), false);
+    }
+
+    /**
+     * Waits for the background refinery to finish and delivers its results, so this thread can
+     * run the refinery itself without getting ahead of gestures released earlier.
+     */
+    private void awaitRefinery() {
+        if (worker != null) {
+            worker.awaitIdle();
+            deliverRefined();
+        }
+    }
+
+    /**
+     * Called on the worker thread whenever the background refinery has results waiting. They
+     * are delivered with the next event by default, OnGestureListener posts deliverRefined() to
+     * the input thread right away.
+     */
+    protected void onRefinedInBackground() {
+    }
+
+    /**
+     * Delivers the results the background refinery has ready. Must be called on the thread
+     * handling the events.
+     */
+    protected final void deliverRefined() {
+        if (worker == null) {
+            return;
+        }
+        List<Gesture> refined;
+        while ((refined = worker.poll()) != null) {
+            processAndRecycle(refined, false);
+        }
+    }
+
+    protected final void process(final List<Gesture> touches, final boolean force) {
+        preprocess();
+        for (int i = 0; i < touches.size(); i++) {
+            final Gesture touch = touches.get(i);
+            if (debugging()) {
+                log(touch.getDownX() + " process " + touch.hasParent() + " " + touch.refined());
+            }
+            if (touch.freed()) {
+                if (!touch.isHeld()) {
+                    onProcessTouch(touch);
+                }
+                processAndRecycle(abandonChildren(touch), force);
+            } else if (force) {
+                onFreedom(touch);
+                awaitRefinery();
+                processAndRecycle(refinery(touch, swipeFactor(), invertHorizontalSwipes()), true);
+            }
+            touch.process();
+        }
+    }
+
+    private void processAndRecycle(final List<Gesture> touches, final boolean force) {
+        process(touches, force);
+        recycleList(touches);
+    }
+
+    public final boolean onCancel() {
+        if (debugging()) {
+            log("onCancel");
+        }
+        awaitRefinery();
+        if (recorder != null) {
+            recorder.record(GestureRecorder.CANCEL, -1, 0, 0, recorder.getLastTime());
+        }
+        clearMainThreads();
+        clearAltThreads();
+        final Gesture[] touches = getTouches();
+        for (long slots = getActiveSlots(); slots != 0; slots &= slots - 1) {
+            retractPrediction(touches[Long.numberOfTrailingZeros(slots)]);
+        }
+        clearTouches();
+        clearStreams();
+        hardReset();
+        resetVariables();
+        recycleGestures();
+        return true;
+    }
+
+    protected final void liberateTouches(final Gesture liberator) {
+        if (liberator == null) {
+            return;
+        }
+        onLiberate(liberator);
+        freeTouch(liberator);
+        final Gesture root = liberator.getRoot();
+        if (debugging()) {
+            log("liberateTouches " + root + " " + liberator);
+        }
+        if (!root.equals(liberator)) {
+            if (root.refined()) {
+                processAndRecycle(abandonChildren(root), true);
+            } else {
+                root.refine();
+                awaitRefinery();
+                processAndRecycle(refinery(root, swipeFactor(), invertHorizontalSwipes()), true);
+            }
+        }
+    }
+
+    protected final void freeTouches(List<Gesture> touches) {
+        for (int i = 0; i < touches.size(); i++) {
+            freeTouch(touches.get(i));
+        }
+    }
+
+    /**
+     * Frees the touch and then every touch below it, depth first in the order they were had.
+     * The walk keeps its own stack, so freeing from within onFreedom() is fine.
+     */
+    protected final void freeTouch(Gesture touch) {
+        if (touch == null) {
+            return;
+        }
+        final int base = freeing.size();
+        freeing.add(touch);
+        while (freeing.size() > base) {
+            final Gesture next = freeing.remove(freeing.size() - 1);
+            onFreedom(next);
+            final int first = freeing.size();
+            next.abandonChildren(freeing);
+            for (int i = first, j = freeing.size() - 1; i < j; i++, j--) {
+                freeing.set(j, freeing.set(i, freeing.get(j)));     // First child on top
+            }
+        }
+    }
+
+    protected final Direction getMultiTouchDirection(final Gesture[] touches) {
+        if (getTouchCount() != 2 || isMultiTouch()) {
+            return Direction.UNDEFINED;
+        }
+        int right = 0;
+        int left = 0;
+        int down = 0;
+        int up = 0;
+        int tap = 0;
+        Direction dir = Direction.UNDEFINED;
+        for (int i = 0; i < getTouchCount(); i++) {
+            final Gesture touch = touches[i];
+            if (touch == null) {
+                return Direction.UNDEFINED;
+            }
+            final Direction direction = Calculator.getDirection(touch.getDeltaX(), touch.getDeltaY(), invertHorizontalSwipes());
+            if (tapChecker(touch, direction, touch.getLength(), 1.0f)) {
+                tap++;
+                if (tap == maxMultiTouch() && multiTouchDirectionEnabled(Direction.TAP)) {
+                    dir = Direction.TAP;
+                }
+            } else {
+                switch (direction) {
+                    case RIGHT:
+                        right++;
+                        if (right == maxMultiTouch() && multiTouchDirectionEnabled(direction)) {
+                            dir = direction;
+                        }
+                        break;
+                    case LEFT:
+                        left++;
+                        if (left == maxMultiTouch() && multiTouchDirectionEnabled(direction)) {
+                            dir = direction;
+                        }
+                        break;
+                    case DOWN:
+                        down++;
+                        if (down == maxMultiTouch() && multiTouchDirectionEnabled(direction)) {
+                            dir = direction;
+                        }
+                        break;
+                    case UP:
+                        up++;
+                        if (up == maxMultiTouch() && multiTouchDirectionEnabled(direction)) {
+                            dir = direction;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return dir;
+    }
+
+    private void resetVariables() {
+        onReset();
+
+        recentID = -1;
+        useLatest = false;
+
+        doubleTap = false;
+
+        heldID = -1;
+        heldCount = 0;
+        heldDrag = false;
+        isHolding = false;
+
+        areaID = -1;
+        areas.clear();
+
+        specialID = -1;
+        specialArea = null;
+        isSpecial = false;
+        wasSpecial = false;
+        ranSpecial = false;
+        heldSpecial = false;
+        specialDir = Direction.UNDEFINED;
+
+        isMultiTouch = false;
+    }
+
+    /**
+     * Returns a refined x using the offset provided.
+     *
+     * @param x Original x coordinate
+     * @return Refined x coordinate after applying the offset
+     */
+    protected final float refineX(float x) {
+        return x + xOffset();
+    }
+
+    /**
+     * Returns a refined y using the offset provided.
+     *
+     * @param y Original y coordinate
+     * @return Refined y coordinate after applying the offset
+     */
+    protected final float refineY(float y) {
+        return y + yOffset();
+    }
+
+    /**
+     * Returns the original x coordinate after removing the offset.
+     *
+     * @param x Refined x coordinate
+     * @return Original x coordinate after removing the offset
+     */
+    protected final float makeRawX(float x) {
+        return x - xOffset();
+    }
+
+    /**
+     * Returns the original y coordinate after removing the offset.
+     *
+     * @param y Refined y coordinate
+     * @return Original y coordinate adter removing the offset
+     */
+    protected final float makeRawY(float y) {
+        return y - yOffset();
+    }
+
+    /**
+     * Method used to update any UI elements that will need to be released
+     * during the normal flow of user input.
+     *
+     * @param touch Gesture object to be freed
+     */
+    protected abstract void onFreedom(Gesture touch);
+
+    /**
+     * Additional method used to update any UI elements that require
+     * specific handling. This will typically called alongside onRelease
+     * or onFreedom, and during an onHold phase.
+     *
+     * @param touch Gesture object to be liberated
+     */
+    protected abstract void onLiberate(Gesture touch);
+
+    /**
+     * Creates a tag to be set to every gesture event passed by the user.
+     * This should contain any details necessary to perform the correct
+     * action based on the user's gesture.
+     *
+     * @param rawX Coordinate directly passed by the Android OS
+     * @param rawY Coordinate directly passed by the Android OS
+     * @param x    Coordinate refined by the specified offset
+     * @param y    Coordinate refined by the specified offset
+     * @return Tag object that will be attached to the gesture event
+     */
+    protected abstract Object createTag(float rawX, float rawY, float x, float y);
+
+    /**
+     * Defines the horizontal offset to be applied to all x coordinates.
+     *
+     * @return The horizontal offset
+     */
+    protected abstract float xOffset();
+
+    /**
+     * Defins the vertical offset to be applied to all y coordinates.
+     *
+     * @return The vertical offset
+     */
+    protected abstract float yOffset();
+
+    /**
+     * The current swipe factor used to control the desired lenght of
+     * applicable swipes with 1.0f being the default, < 1.0f being shorter
+     * swipes, > 1.0f being longer swipes.
+     *
+     * @return A ratio to apply to the minimum swipe length desired
+     */
+    protected abstract float swipeFactor();
+
+    /**
+     * Inverts the gesture handling.
+     *
+     * @return True will turn RIGHT directed swipes to LEFT
+     */
+    protected abstract boolean invertHorizontalSwipes();
+
+    /**
+     * Resets all elements being used either after a input session has ended,
+     * or a gesture event that invalidates the current session.
+     */
+    protected abstract void onReset();
+
+    /**
+     * Called when the listener has determined a hold action is being performed.
+     *
+     * @param touch The gesture used to perform the hold
+     */
+    protected abstract void onHold(Gesture touch);
+
+    /**
+     * The hold delay used to determine when onHold can be called.
+     *
+     * @param touch The gesture used to perform the hold
+     * @return Delay duration to be applied before onHold is called.
+     */
+    protected abstract long holdDelay(Gesture touch);
+
+    /**
+     * Called when the listener begins to define some touch details and
+     * screen the gesture to see if it's viable to perform a hold event.
+     *
+     * @param touch The gesture used to perform the hold
+     * @return The updated gesture that will be used to perform a hold event.
+     */
+    protected abstract Gesture onPreHold(Gesture touch);
+
+    /**
+     * The hold delay used to determine when onPreHold can be called.
+     *
+     * @param touch The gesture used to perform the hold
+     * @return Delay duration to be applied before onPreHold is called.
+     */
+    protected abstract long preHoldDelay(Gesture touch);
+
+    /**
+     * The hold delay used after an onHold has been performed and
+     * repeatHold has returned True
+     *
+     * @param touch The gesture used to perform the hold
+     * @return Delay duration to be applied before onHold is called again.
+     */
+    protected abstract long postHoldDelay(Gesture touch);
+
+    /**
+     * The double tap delay that determines the speed in which one
+     * must perform a double tap under.
+     *
+     * @param touch The gesture used to perform a double tap
+     * @return Delay duration that the user must beat in order to perform
+     * a double tap.
+     */
+    protected abstract long doubleTapDelay(Gesture touch);
+
+    /**
+     * Determines whether or not the current touch can perform a hold event.
+     *
+     * @param touch The current gesture being analyzed
+     * @return True if the gesture can call onHold
+     */
+    protected abstract boolean canHold(Gesture touch);
+
+    /**
+     * Determines whether or not the held touch's action can be repeated.
+     *
+     * @param touch The gesture used to perform the hold
+     * @return True if the gesture can call onHold again
+     */
+    protected abstract boolean repeatHold(Gesture touch);
+
+    /**
+     * Called once a held touch has been performed (released).
+     *
+     * @param touch The gesture used to perform the hold
+     * @return True if the gesture was handled and can be destroyed
+     */
+    protected abstract boolean onProcessHold(Gesture touch);
+
+    /**
+     * Determines whether or not the touch can perform a special action.
+     *
+     * @param touch The current gesture being analyzed
+     * @return True if the gesture can perform a special action
+     */
+    protected abstract boolean canSpecialize(Gesture touch);
+
+    /**
+     * Determines whether or not the touch can perform an action in a
+     * specific area.
+     *
+     * @param touch The current gesture being analyzed
+     * @return True if the gesture is allowed in a specific area
+     */
+    protected abstract boolean canBeInAnArea(Gesture touch);
+
+    /**
+     * Returns the double tap object being tracked.
+     *
+     * @param touch The current gesture being analyzed
+     * @return The double tap object being tracked
+     */
+    protected abstract Object getDoubleTapObj(Gesture touch);
+
+    /**
+     * One of the earliest methods to be called in the on down
+     * event area. This should be the location to update any tag
+     * details or UI elements necessary before the user's gesture
+     * is fully carried out.
+     *
+     * @param touch The current gesture being analyzed
+     * @return The updated gesture after analyzation
+     */
+    protected abstract Gesture onTap(Gesture touch);
+
+    /**
+     * Called when the user has successfully performed a double tap.
+     *
+     * @param touch The gesture used to perform a double tap
+     * @return The updated gesture after analyzation
+     */
+    protected abstract Gesture onDoubleTap(Gesture touch);
+
+    /**
+     * Final method called when a gesture is being released by the user.
+     *
+     * @param touch The gesture to be released
+     * @return The udpated gesture after release
+     */
+    protected abstract Gesture onRelease(Gesture touch);
+
+    /**
+     * Provides the special areas used for complicated gestures.
+     * Usually gestures that require one to get from point A -> B.
+     *
+     * @return An array of areas used for special gestures
+     */
+    protected abstract Bounds[] getSpecialAreaBounds();
+
+    /**
+     * Provides the areas used for simple gestures.
+     * Usually gestures that simply require the user to start
+     * (on down) an action in the specified area.
+     *
+     * @return An array of areas used for simple gestures
+     */
+    protected abstract Bounds[] getAreaBounds();
+
+    /**
+     * Returns the delay used for special area gestures.
+     *
+     * @param area The area where the gesture is being performed
+     * @return Delay used to perform special actions
+     */
+    protected abstract long getSpecialDelay(final Bounds area);
+
+    /**
+     * Called when a special action is being held.
+     *
+     * @param area The area where the gesture is being performed
+     * @return True if the area can perform a held action
+     */
+    protected abstract boolean onSpecialHold(final Bounds area);
+
+    /**
+     * Called when a tap n hold is being performed.
+     *
+     * @param touch The current gesture being dragged
+     * @param rawX  Coordinate directly passed by the Android OS
+     * @param rawY  Coordinate directly passed by the Android OS
+     * @return The updated gesture object
+     */
+    protected abstract Gesture onHeldDrag(Gesture touch, final float rawX, final float rawY);
+
+    /**
+     * Called when a gesture is in a special area.
+     *
+     * @param touch The current gesture being analyzed
+     * @param area  The area where the gesture is being performed
+     */
+    protected abstract void onSpecialArea(Gesture touch, final Bounds area);
+
+    /**
+     * Called when a gesture is in the middle of performing a special hold event.
+     *
+     * @param touch The current gesture being analyzed
+     * @param area  The area where the gesture is being performed
+     * @param dir   The direction of the gesture
+     * @return True if the gesture is successfully performing a hold event
+     */
+    protected abstract boolean inSpecialHold(Gesture touch, final Bounds area, final Direction dir);
+
+    /**
+     * Called when the user has begun to perform a special gesture event.
+     *
+     * @param touch The current gesture being analyzed
+     * @param area  The area where the gesture is being performed
+     * @param delta The change in length from the onDown to the latest onMove
+     * @param dir   The direction of the gesture
+     * @return True if the gesture has potential to perform a special action
+     */
+    protected abstract boolean onSpecialDrag(Gesture touch, final Bounds area, final float delta, final Direction dir);
+
+    /**
+     * Called once a special action can be/has been performed
+     *
+     * @param touch   The gesture used to perform a special drag
+     * @param area    The area where the gesture was performed
+     * @param dir     The direction of the gesture
+     * @param wasHeld True if the gesture performed a special hold action
+     * @return True if the gesture was handled and can be destroyed
+     */
+    protected abstract boolean onProcessSpecial(Gesture touch, final Bounds area, final Direction dir, final boolean wasHeld);
+
+    /**
+     * Determines whether the current gesture can produce a multitouch event.
+     *
+     * @param touch The current gesture being analyzed
+     * @return True if the gesture can attribute itself to a multitouch event
+     */
+    protected abstract boolean canMultiTouch(Gesture touch);
+
+    /**
+     * Called when a multitouch event occurs.
+     *
+     * @param touches The current array of touches up for multitouch consideration
+     * @return True if the gesture was handled and can be destroyed
+     */
+    protected abstract boolean onMultiTouch(Gesture[] touches);
+
+    /**
+     * Called before a gesture is processed. Should be used for data tracking or
+     * variable initialization that will be found in the OnProcessTouch() method.
+     */
+    protected abstract void preprocess();
+
+    /**
+     * Called when the gesture has not met any special exceptions and needs to be
+     * processed then destroyed. This may be the last time you see this gesture
+     * so be sure to take a picture, give it a hug, and send it on it's way.
+     * When pooling() is enabled, hand it back through recycle() once you're done with it.
+     *
+     * @param touch The current gesture being processed
+     */
+    protected abstract void onProcessTouch(Gesture touch);
+
+    /**
+     * Emergency call to reset all variables and invalidate any user input currently
+     * being performed. Typically only OnCancel will call this method.
+     */
+    public abstract void hardReset();
+
+    /**
+     * Determines the max number of fingers to be handled in multitouch events.
+     *
+     * @return The number of gestures allowed to perform a multitouch event
+     */
+    protected abstract int maxMultiTouch();
+
+    /**
+     * Determines whether the passed direction can perform a multitouch action
+     * or event.
+     *
+     * @param dir The direction of the gesture
+     * @return True if the direction can perform a multitouch action
+     */
+    protected abstract boolean multiTouchDirectionEnabled(Direction dir);
+
+}
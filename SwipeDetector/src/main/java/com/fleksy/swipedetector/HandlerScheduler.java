@@ -0,0 +1,38 @@
+package com.fleksy.swipedetector;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import com.fleksy.swipedetector.tool.Scheduler;
+import com.fleksy.swipedetector.tool.Timer;
+
+/**
+ * Scheduler posting timers to a Handler on the thread it was created on, following the
+ * uptime clock MotionEvents are stamped with.
+ */
+public final class HandlerScheduler implements Scheduler {
+
+    private final Handler handler = new Handler();
+
+    @Override
+    public long now() {
+        return SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public void schedule(Timer timer, long delay) {
+        handler.removeCallbacks(timer);
+        handler.postDelayed(timer, delay);
+    }
+
+    @Override
+    public void cancel(Timer timer) {
+        handler.removeCallbacks(timer);
+    }
+
+    @Override
+    public void advanceTo(long time) {
+        // Timers follow the uptime clock on their own
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.fleksy.swipedetector;
+
+import android.view.MotionEvent;
+
+import com.fleksy.swipedetector.tool.TouchSource;
+
+/**
+ * Reads a MotionEvent as a TouchSource. One instance is rewrapped around every event, so it
+ * is only valid until the next call to wrap().
+ */
+final class MotionEventSource implements TouchSource {
+
+    private MotionEvent me;
+    private int action;
+
+    TouchSource wrap(MotionEvent me) {
+        this.me = me;
+        switch (me.getActionMasked()) {
+            case MotionEvent.ACTION_POINTER_DOWN:
+            case MotionEvent.ACTION_DOWN:
+                action = DOWN;
+                break;
+            case MotionEvent.ACTION_MOVE:
+                action = MOVE;
+                break;
+            case MotionEvent.ACTION_POINTER_UP:
+            case MotionEvent.ACTION_UP:
+                action = UP;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                action = CANCEL;
+                break;
+            default:
+                action = OTHER;
+                break;
+        }
+        return this;
+    }
+
+    @Override
+    public int getAction() {
+        return action;
+    }
+
+    @Override
+    public int getActionIndex() {
+        return me.getActionIndex();
+    }
+
+    @Override
+    public int getPointerCount() {
+        return me.getPointerCount();
+    }
+
+    @Override
+    public int getPointerId(int index) {
+        return me.getPointerId(index);
+    }
+
+    @Override
+    public float getX(int index) {
+        return me.getX(index);
+    }
+
+    @Override
+    public float getY(int index) {
+        return me.getY(index);
+    }
+
+    @Override
+    public long getEventTime() {
+        return me.getEventTime();
+    }
+
+    @Override
+    public int getHistorySize() {
+        return me.getHistorySize();
+    }
+
+    @Override
+    public float getHistoricalX(int index, int position) {
+        return me.getHistoricalX(index, position);
+    }
+
+    @Override
+    public float getHistoricalY(int index, int position) {
+        return me.getHistoricalY(index, position);
+    }
+
+    @Override
+    public long getHistoricalEventTime(int position) {
+        return me.getHistoricalEventTime(position);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+
+import java.util.List;
+
+/**
+ * Runs recorded gestures through the refinery without a view. Thresholds are changed by
+ * overriding the ProcessLogicProvider methods, as with OnGestureListener. A detector keeps
+ * state between gestures and must only be used by one thread at a time.
+ */
+public class OfflineDetector extends TouchRefinery {
+
+    private Classification classification;
+
+    public OfflineDetector(float pixelSize, float width, float height) {
+        super(pixelSize);
+        updateDimensions(width, height);
+    }
+
+    /**
+     * Classifies a copy of the recorded gesture, the recording itself is left untouched so it
+     * can be scored again.
+     *
+     * @param recorded A finished gesture, one finger from down to up
+     * @return What the refinery made of it
+     */
+    public final Classification classify(Gesture recorded) {
+        final Gesture touch = copyGesture(recorded);
+
+        classification = null;
+        final List<Gesture> refined = refinery(touch, swipeFactor(), invertHorizontalSwipes());
+        for (int i = 0; i < refined.size(); i++) {
+            recycle(refined.get(i));
+        }
+        recycleList(refined);
+        recycleGestures();
+        return classification;
+    }
+
+    @Override
+    protected boolean pooling() {
+        return true;
+    }
+
+    /**
+     * @return Multiple of the minimum length a gesture needs to be a swipe, 1 by default
+     */
+    protected float swipeFactor() {
+        return 1.0f;
+    }
+
+    protected boolean invertHorizontalSwipes() {
+        return false;
+    }
+
+    @Override
+    protected int getTimeLimit(Gesture touch) {
+        return 0;
+    }
+
+    @Override
+    protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+        return false;
+    }
+
+    @Override
+    protected final boolean onCheckedTap(Gesture tap) {
+        classification = Classification.TAP;
+        return false;
+    }
+
+    @Override
+    protected final boolean onPhantomSwipe(Gesture phantom) {
+        classification = Classification.PHANTOM;
+        return true;
+    }
+
+    @Override
+    protected final boolean onDetectedSwipe(Gesture swipe) {
+        classification = Classification.SWIPE;
+        return false;
+    }
+
+    @Override
+    protected float getMinSwipeLength() {
+        return 0;
+    }
+
+}
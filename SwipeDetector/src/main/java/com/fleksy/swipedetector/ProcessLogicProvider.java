@@ -1,6 +1,7 @@
 package com.fleksy.swipedetector;
 
-import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.tool.GestureMetrics;
+import com.fleksy.swipedetector.tool.ScanTrace;
 
 /**
  * Created by grey on 3/17/16.
@@ -10,8 +11,15 @@ abstract class ProcessLogicProvider {
     private float viewWidth;
     private float viewHeight;
 
+    private static final int TRACE_CAPACITY = 512;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
     private final float pixelSize;
-    private StringBuilder out = new StringBuilder();
+    private final ScanTrace trace = new ScanTrace(TRACE_CAPACITY);
+    private ScanTrace target = trace; // Where the current scan is recorded
+    private boolean traced;
+    private final GestureMetrics metrics = new GestureMetrics();
+    private ThresholdProfile profile = ThresholdProfile.DEFAULT;
 
     public ProcessLogicProvider(float pixelSize) {
         this.pixelSize = pixelSize;
@@ -40,6 +48,20 @@ abstract class ProcessLogicProvider {
         viewHeight = height;
     }
 
+    /**
+     * Replaces the thresholds the default implementations of the methods below return, for
+     * instance with one ThresholdTuner found for a device class. Overridden methods ignore it.
+     *
+     * @param profile Thresholds to use, ThresholdProfile.DEFAULT initially
+     */
+    public final void setProfile(ThresholdProfile profile) {
+        this.profile = profile;
+    }
+
+    public final ThresholdProfile getProfile() {
+        return profile;
+    }
+
     /**
      * Returns the maximum allowed distance between points. The length in which points can "jump" to.
      * Extreme "jumps" in length hint towards artificial gestures.
@@ -48,7 +70,7 @@ abstract class ProcessLogicProvider {
      * or the area's width divided by 8 (assumed best dimension for Fleksy keyboard)
      */
     protected float getJumpLength() {
-        return viewWidth / 8;
+        return viewWidth / profile.get(ThresholdProfile.JUMP_DIVISOR);
     }
 
     /**
@@ -61,7 +83,7 @@ abstract class ProcessLogicProvider {
      * or the area's height divided by 8 (assumed best dimension for Fleksy keyboard)
      */
     protected float getNiceLength() {
-        return viewHeight / 8;
+        return viewHeight / profile.get(ThresholdProfile.NICE_DIVISOR);
     }
 
     /**
@@ -73,7 +95,7 @@ abstract class ProcessLogicProvider {
      * or the area's height divided by 40 (assumed best dimension for Fleksy keyboard)
      */
     protected float getAverageLength() {
-        return viewHeight / 40;
+        return viewHeight / profile.get(ThresholdProfile.AVERAGE_DIVISOR);
     }
 
     /**
@@ -83,7 +105,7 @@ abstract class ProcessLogicProvider {
      * @return determined maximum allotted number of points that may have the same angle. Default 3.
      */
     protected float getMaxConcurrentRads() {
-        return 3;
+        return profile.get(ThresholdProfile.MAX_CONCURRENT_RADS);
     }
 
     /**
@@ -93,7 +115,7 @@ abstract class ProcessLogicProvider {
      * @return the limiting value that decides whether the swipe is artificial. Default 4.
      */
     protected float getMaxWeight() {
-        return 4;
+        return profile.get(ThresholdProfile.MAX_WEIGHT);
     }
 
     /**
@@ -102,7 +124,7 @@ abstract class ProcessLogicProvider {
      * @return 90 degrees in radians.
      */
     protected float getAvgRadianError() {
-        return 1.57f;
+        return profile.get(ThresholdProfile.AVG_RADIAN_ERROR);
     }
 
     /**
@@ -111,7 +133,7 @@ abstract class ProcessLogicProvider {
      * @return 180 degrees in radians.
      */
     protected float getMaxRadianError() {
-        return 3.14f;
+        return profile.get(ThresholdProfile.MAX_RADIAN_ERROR);
     }
 
     /**
@@ -120,7 +142,7 @@ abstract class ProcessLogicProvider {
      * @return 10 degrees in radians.
      */
     protected float getMinChangeInRads() {
-        return 0.174f;
+        return profile.get(ThresholdProfile.MIN_CHANGE_IN_RADS);
     }
 
     /**
@@ -129,7 +151,7 @@ abstract class ProcessLogicProvider {
      * @return 45 degrees in radians.
      */
     protected float getAvgChangeInRads() {
-        return 0.785f;
+        return profile.get(ThresholdProfile.AVG_CHANGE_IN_RADS);
     }
 
     /**
@@ -138,7 +160,7 @@ abstract class ProcessLogicProvider {
      * @return Defaults to 16 (Determined through testing on the Fleksy Keyboard)
      */
     protected float getMaxStandardDeviation() {
-        return 16;
+        return profile.get(ThresholdProfile.MAX_STANDARD_DEVIATION);
     }
 
     /**
@@ -150,7 +172,7 @@ abstract class ProcessLogicProvider {
      * of points towards the end of a gesture. Default 0.9f
      */
     protected float getAvgEndLengthRatio() {
-        return 0.9f;
+        return profile.get(ThresholdProfile.AVG_END_LENGTH_RATIO);
     }
 
     /**
@@ -159,14 +181,39 @@ abstract class ProcessLogicProvider {
      * @return Defaults to 0.7f (Determined through testing on the Fleksy Keyboard)
      */
     protected float getAvgSpeedForVelocity() {
-        return 0.7f;
+        return profile.get(ThresholdProfile.AVG_SPEED_FOR_VELOCITY);
+    }
+
+    /**
+     * The spacing gestures are reduced to before being scanned when SwipeDetector.decimating() is
+     * enabled. The lengths and angles the other values describe are those between points sampled
+     * at the usual rate, so points closer than the average length are dropped. Paths sampled
+     * at that rate pass through mostly untouched, while faster digitizers are brought back to it.
+     *
+     * @return Minimum distance between scanned points, defaults to getAverageLength()
+     */
+    protected float getDecimationSpacing() {
+        return getAverageLength();
     }
 
     /**
-     * Resets all variables to a clean state
+     * The most points of a gesture that are scanned when SwipeDetector.decimating() is enabled.
+     * Longer paths are reduced with a wider spacing.
+     *
+     * @return Maximum number of points scanned per gesture. Default 64.
+     */
+    protected int getMaxDecimatedPoints() {
+        return 64;
+    }
+
+    /**
+     * Resets all variables to a clean state and marks the start of a new scan in the trace
      */
     protected void reset() {
-        out.setLength(0);
+        traced = tracing() || debugging();
+        if (traced) {
+            trace.record(ScanTrace.SCAN, -1, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
     }
 
     /**
@@ -178,32 +225,163 @@ abstract class ProcessLogicProvider {
         return false;
     }
 
+    /**
+     * Prints a message of debug mode. Standard error by default, OnGestureListener sends them to
+     * the Android log instead.
+     *
+     * @param message Message to print
+     */
+    protected void log(String message) {
+        System.err.println(getClass().getSimpleName() + ": " + message);
+    }
+
+    /**
+     * Enables fast math, where the per point geometry uses a polynomial atan2, a branch based
+     * angle wrap and squared lengths wherever only their ordering matters. Angles are within
+     * 1e-7 radians of the precise ones, which leaves the phantom decisions unchanged.
+     *
+     * @return True to use the faster approximations, False for the precise Math functions
+     */
+    protected boolean fastMath() {
+        return false;
+    }
+
+    /**
+     * Enables the scan trace without the rest of debug mode. Every rule that affects a gesture
+     * is recorded into a fixed size buffer of primitives, which is cheap enough to leave on for
+     * a sample of users. Formatting only happens once the trace is read.
+     *
+     * @return True to record the scan trace, False by default. Always on while debugging.
+     */
+    protected boolean tracing() {
+        return false;
+    }
+
+    /**
+     * Provides the raw scan trace, holding the most recent decisions across gestures.
+     *
+     * @return The scan trace
+     */
+    protected final ScanTrace getTrace() {
+        return trace;
+    }
+
     /**
      * Called for debugging purposes after a gesture has gone through processing
      *
      * @return String containing all messages and details during the gesture analyzing process.
      */
     protected final String getRawOutput() {
-        return out.toString();
+        return trace.appendTo(new StringBuilder(), trace.getLatestScan()).toString();
+    }
+
+    /**
+     * @return True if the current scan is being traced
+     */
+    protected final boolean isTracing() {
+        return traced;
+    }
+
+    /**
+     * Stops tracing the current scan, for work that isn't part of it.
+     *
+     * @return Whether the scan was being traced, to hand back to resumeTracing()
+     */
+    protected final boolean pauseTracing() {
+        final boolean paused = traced;
+        traced = false;
+        return paused;
+    }
+
+    protected final void resumeTracing(boolean paused) {
+        traced = paused;
+        target = trace;
+    }
+
+    /**
+     * Records the current scan into a trace of its own rather than the shared one, for scans
+     * spread over several events while other scans go on in between. Ended by resumeTracing().
+     *
+     * @param into Trace receiving the entries
+     * @return Whether the interrupted scan was being traced, to hand back to resumeTracing()
+     */
+    protected final boolean traceInto(ScanTrace into) {
+        final boolean paused = traced;
+        traced = tracing() || debugging();
+        target = into;
+        return paused;
     }
 
-    protected final void printData(int state, double rad, double dRad, float x, float y, double l, float t, Direction dir) { //PRINT DATA
-        if (rad < 0) {
-            rad += 6.28; // Provides a positive radian for easier assessment
+    /**
+     * Copies the entries a scan recorded on its own into the shared trace, after the start of
+     * the scan.
+     */
+    protected final void appendTrace(ScanTrace entries) {
+        trace.append(entries);
+    }
+
+    /**
+     * Enables the latency histograms and counters of getMetrics(). Recording them is lock free
+     * and allocation free, costing two clock reads per stage, so they can stay on in production.
+     *
+     * @return True to record the metrics, False by default
+     */
+    protected boolean measuring() {
+        return false;
+    }
+
+    /**
+     * Provides the latencies of every stage of handling touches and the counts of what they
+     * turned into, recorded while measuring() is enabled.
+     *
+     * @return The live metrics, take a snapshot() or drain() them to export
+     */
+    public final GestureMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return Start time to hand to stopTiming()
+     */
+    protected final long startTiming() {
+        return measuring() ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the time since startTiming() against the stage, if it was measured.
+     */
+    protected final void stopTiming(int stage, long start) {
+        if (start != NOT_TIMED) {
+            metrics.record(stage, System.nanoTime() - start);
         }
-        if (debugging()) {
-            println(state + " d" + (Math.round((rad) * 100) / 100.0) + "b [" + (Math.round((dRad) * 1000) / 1000.0)
-                    + "] <" + Math.round(x) + ", " + Math.round(y) + "> l: " + Math.round((l) * 1000) / 1000.0 + " Dir: " + dir);
+    }
+
+    protected final void count(int counter) {
+        if (measuring()) {
+            metrics.count(counter);
         }
     }
 
-    protected final void println() {
-        out.append("\n");
+    protected final void trace(int rule, int index, float weight, float delta) {
+        target.record(rule, index, weight, delta, 0, 0, 0, 0, 0, 0);
+    }
+
+    protected final void trace(int rule, int index, float weight, float delta, double v0) {
+        target.record(rule, index, weight, delta, v0, 0, 0, 0, 0, 0);
+    }
+
+    protected final void trace(int rule, int index, float weight, float delta, double v0, double v1) {
+        target.record(rule, index, weight, delta, v0, v1, 0, 0, 0, 0);
+    }
+
+    protected final void trace(int rule, int index, float weight, float delta,
+                               double v0, double v1, double v2, double v3) {
+        target.record(rule, index, weight, delta, v0, v1, v2, v3, 0, 0);
     }
 
-    protected final void println(String in) {
-        out.append(in);
-        println();
+    protected final void trace(int rule, int index, float weight, float delta,
+                               double v0, double v1, double v2, double v3, double v4, double v5) {
+        target.record(rule, index, weight, delta, v0, v1, v2, v3, v4, v5);
     }
 
 }
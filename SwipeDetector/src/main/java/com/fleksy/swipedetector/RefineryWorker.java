@@ -0,0 +1,114 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.SpscQueue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread running the refinery for finished gestures handed over by the input thread. Gestures
+ * go in through one single producer, single consumer queue and their results come back in the
+ * same order through another, to be delivered by the input thread.
+ */
+final class RefineryWorker implements Runnable {
+
+    interface Refiner {
+
+        /**
+         * Runs the refinery for a finished gesture, on the worker thread.
+         */
+        List<Gesture> refine(Gesture touch);
+
+        /**
+         * Called on the worker thread once a result can be polled.
+         */
+        void onRefined();
+    }
+
+    private final Refiner refiner;
+    private final SpscQueue<Gesture> touches;
+    private final SpscQueue<Object> results; // Lists of refined gestures, or what the refinery threw
+    private final AtomicInteger pending = new AtomicInteger(); // Submitted but not refined yet
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    RefineryWorker(Refiner refiner, int capacity) {
+        this.refiner = refiner;
+        touches = new SpscQueue<>(capacity);
+        results = new SpscQueue<>(capacity);
+        thread = new Thread(this, "SwipeDetector-refinery");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Hands over a finished gesture, only called by the input thread.
+     *
+     * @return False if too many results are waiting, the gesture then has to be refined in place
+     */
+    boolean submit(Gesture touch) {
+        if (!running || pending.get() + results.size() >= results.capacity() || !touches.offer(touch)) {
+            return false;
+        }
+        pending.incrementAndGet();
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Takes the oldest result, only called by the input thread.
+     *
+     * @return The refined gestures, null if no result is waiting
+     */
+    @SuppressWarnings("unchecked")
+    List<Gesture> poll() {
+        final Object result = results.poll();
+        if (result instanceof RuntimeException) {
+            throw (RuntimeException) result;
+        } else if (result instanceof Error) {
+            throw (Error) result;
+        }
+        return (List<Gesture>) result;
+    }
+
+    /**
+     * Waits for every submitted gesture to be refined. Only called by the input thread before it
+     * runs the refinery itself, so the two never run at the same time.
+     */
+    void awaitIdle() {
+        while (pending.get() > 0) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Stops the thread once the submitted gestures are refined.
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running || !touches.isEmpty()) {
+            final Gesture touch = touches.poll();
+            if (touch == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            Object result;
+            try {
+                result = refiner.refine(touch);
+            } catch (Throwable t) {
+                result = t;                                     // Rethrown on the input thread
+            }
+            results.offer(result);
+            pending.decrementAndGet();
+            refiner.onRefined();
+        }
+    }
+
+}
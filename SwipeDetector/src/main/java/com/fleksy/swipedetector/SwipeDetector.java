@@ -1,37 +1,31 @@
 package com.fleksy.swipedetector;
 
 import com.fleksy.swipedetector.model.Direction;
-import com.fleksy.swipedetector.model.FPoint;
 import com.fleksy.swipedetector.model.Gesture;
 import com.fleksy.swipedetector.tool.Calculator;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.fleksy.swipedetector.tool.GestureMetrics;
+import com.fleksy.swipedetector.tool.ScanTrace;
 
 /**
  * Created by grey on 3/17/16.
  */
 abstract class SwipeDetector extends ProcessLogicProvider {
 
-    private boolean isPhantomSwipe; // Final flag setting gesture's authenticity
-    private float weight; // Main Counter For Number of Bad Flags (The Weight)
-
-    private FPoint p1;
-    private FPoint p2;
-    private int perfect;
-    private int directions;
-    private long deltaTime;
-    private double eRad;
-    private double prevLn;
-    private double totalLn;
-    private double prevRad;
-    private double prevDelta;
-    private float phantomLn;
-    private Direction prevDir;
-    private Direction direction;
-    private boolean badAngle;
-    private boolean badDirections;
-    private List<Double> lengths = new ArrayList<>();
+    private static final int MAX_STREAMS = 10;
+    private static final int STREAM_TRACE_CAPACITY = 256; // Entries a stream keeps until it is checked
+    private static final float ROUNDING_SLACK = 0.1f; // Most the rounding in checkErrors() can take off
+    private static final float WEIGHT_MARGIN = 0.001f; // Covers float error in the divisions of the bound
+
+    private final SwipeScan immediate = new SwipeScan(); // Used when a gesture wasn't streamed
+    private final SwipeScan[] streams = new SwipeScan[MAX_STREAMS];
+    private final SwipeScan prediction = new SwipeScan(); // Scratch copy of a stream being predicted
+    private SwipeScan scan = immediate; // The scan currently being worked on
+    private final Gesture decimated = new Gesture(null, 0, 0, 0, 0, null); // Reduced path being scanned
+
+    private int p1;
+    private int p2;
+    private double maxDivisor; // Most the final weight can still be divided by, for the early exit
+    private boolean exitedEarly;
 
     /**
      * The brains that parse a gesture, analyze every point, find faults, count faults and
@@ -43,6 +37,178 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     public SwipeDetector(float pixelSize) {
         super(pixelSize);
+        for (int i = 0; i < MAX_STREAMS; i++) {
+            streams[i] = new SwipeScan();
+        }
+        immediate.reset();
+    }
+
+    /**
+     * Enables streaming mode, where every point added to a gesture while the finger is still
+     * moving is scanned right away through streamPoints(). The check performed on release
+     * then only scans the remaining points and applies the final rules, which no longer
+     * depends on the gesture's length.
+     *
+     * @return True if gestures should be scanned as they are drawn, False by default
+     */
+    protected boolean streaming() {
+        return false;
+    }
+
+    /**
+     * Enables predictions, where predictWeight() tells how a gesture that is still being drawn
+     * would be checked if it was released right away. Gestures are streamed for it as they are
+     * with streaming(), so nothing is predicted while decimating() is enabled: decimated
+     * gestures are never streamed and predictWeight() always returns infinity for them.
+     *
+     * @return True to predict the check of gestures as they are drawn, False by default
+     */
+    protected boolean predicting() {
+        return false;
+    }
+
+    /**
+     * Enables decimation, where a gesture's path is reduced before it is scanned, keeping points
+     * at least getDecimationSpacing() apart and no more than getMaxDecimatedPoints() of them.
+     * The scan's cost then depends on the gesture's shape rather than on the digitizer's
+     * sampling rate. Indices in the scan trace refer to the reduced path. As the whole path is
+     * needed, streaming() and predicting() are ignored while decimating.
+     *
+     * @return True to reduce gestures before scanning them, False by default
+     */
+    protected boolean decimating() {
+        return false;
+    }
+
+    /**
+     * Enables early exits, where the scan stops as soon as the gesture can only end up labelled
+     * a phantom. Every rule only adds to the weight, so the weight reached so far, less what
+     * rounding can take off, divided by the most that verticalSave() and the length redemption
+     * of label() could still divide it by, bounds the final weight from below. Once that bound
+     * reaches getMaxWeight() the rest of the gesture is skipped. Decisions are the same as a
+     * full scan, but the trace and the states of the skipped points are left as they were.
+     *
+     * @return True to stop scanning once the outcome is settled, False by default
+     */
+    protected boolean exitingEarly() {
+        return false;
+    }
+
+    /**
+     * @return True if the last check was cut short by exitingEarly()
+     */
+    protected final boolean exitedEarly() {
+        return exitedEarly;
+    }
+
+    /**
+     * Scans any points that were added to the gesture since it was last streamed. Does
+     * nothing unless streaming() is enabled. Gestures that can't be given a stream are
+     * simply scanned in full once they are checked, as are gestures that dropped points to
+     * their retention, see Gesture.setRetention(), since the stream's indices no longer
+     * match the points that are kept.
+     *
+     * @param swipe Gesture that is still being drawn
+     */
+    protected final void streamPoints(Gesture swipe) {
+        if (swipe == null || !(streaming() || predicting()) || decimating()) {
+            return;
+        }
+        SwipeScan stream = findLiveStream(swipe);
+        if (stream == null && swipe.getDroppedCount() == 0) {
+            stream = openStream(swipe);
+        }
+        if (stream == null) {
+            return;
+        }
+        if (stream.trace == null && (tracing() || debugging())) {
+            stream.trace = new ScanTrace(STREAM_TRACE_CAPACITY);
+        }
+        final SwipeScan previous = scan;
+        final boolean traced = stream.trace != null ? traceInto(stream.trace) : pauseTracing();
+        scan = stream;
+        maxDivisor = Double.POSITIVE_INFINITY;                  //The gesture can still grow any length
+        scanPoints(swipe);
+        scan = previous;
+        resumeTracing(traced);
+    }
+
+    /**
+     * Applies the final rules to a copy of the gesture's stream, as if the gesture was released
+     * after the points streamed so far. Nothing is traced and the stream carries on untouched.
+     *
+     * @param swipe Gesture that is still being drawn
+     * @return The weight the gesture would be labelled with, or infinity if it would be labelled
+     * a phantom, is too short to be weighed or has no stream
+     */
+    protected final float predictWeight(Gesture swipe) {
+        final SwipeScan stream = findLiveStream(swipe);
+        if (stream == null || stream.lengthCount <= 2) {
+            return Float.POSITIVE_INFINITY;
+        }
+        final SwipeScan previous = scan;
+        final boolean traced = pauseTracing();
+        prediction.copyFrom(stream);
+        scan = prediction;
+        finalScan(swipe, scan.eRad);
+        final float weight = scan.isPhantomSwipe ? Float.POSITIVE_INFINITY : scan.weight;
+        scan = previous;
+        resumeTracing(traced);
+        return weight;
+    }
+
+    /**
+     * Frees the stream held by a gesture that will never be checked.
+     *
+     * @param swipe Gesture being discarded
+     */
+    protected final void closeStream(Gesture swipe) {
+        final SwipeScan stream = findStream(swipe);
+        if (stream != null) {
+            stream.reset();
+        }
+    }
+
+    /**
+     * Frees every stream, typically when all touches are cancelled.
+     */
+    protected final void clearStreams() {
+        for (SwipeScan stream : streams) {
+            stream.reset();
+        }
+    }
+
+    private SwipeScan findStream(Gesture swipe) {
+        for (SwipeScan stream : streams) {
+            if (stream.gesture == swipe && swipe != null) {
+                return stream;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The gesture's stream, or null if it has none or its gesture dropped points since
+     * the stream was opened, in which case the stream is closed
+     */
+    private SwipeScan findLiveStream(Gesture swipe) {
+        final SwipeScan stream = findStream(swipe);
+        if (stream != null && swipe.getDroppedCount() > 0) {
+            stream.reset();
+            return null;
+        }
+        return stream;
+    }
+
+    private SwipeScan openStream(Gesture swipe) {
+        for (SwipeScan stream : streams) {
+            if (stream.gesture == null) {
+                stream.reset();
+                stream.gesture = swipe;
+                return stream;
+            }
+        }
+        return null;
     }
 
     /**
@@ -64,64 +230,156 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     protected Gesture check(Gesture swipe) {            /** MAIN PHANTOM SWIPE DESTROYER METHOD **/
 
-        reset();                                                    //Resets all values for new process
-
-        if (debugging()) {                                          //Adds a new line for clarity
-            println();
+        final SwipeScan stream = findLiveStream(swipe);
+        if (stream != null) {
+            scan = stream;                                          //Picks up where streaming left off
+            super.reset();
+            if (isTracing() && stream.trace != null) {
+                appendTrace(stream.trace);                          //Transcript starts with the stream
+            }
+        } else {
+            closeStream(swipe);
+            reset();                                                //Resets all values for new process
+            scan.gesture = swipe;
         }
 
-        List<FPoint> ps = swipe.getPoints();
+        final int count = swipe.getPointCount();
+        exitedEarly = false;
 
-        if (badFPoint(ps.size())) {                                //Only one FPoint or less should not be here
-            if (debugging()) println("BAD SWIPE/BAD FPoints!");
+        if (badFPoint(count)) {                                //Only one FPoint or less should not be here
+            if (isTracing()) trace(ScanTrace.BAD_FPOINTS, -1, scan.weight, 0, count);
+            finishScan();
             return swipe;
         }
 
-        deltaTime = (swipe.getLastPoint().getTime() - swipe.getFirstPoint().getTime()); //Calc total time taken
+        scan.deltaTime = swipe.getTimeTaken();                      //Calc total time taken
+
+        if (decimating() && stream == null) {
+            scan.gesture = swipe.decimate(decimated, getDecimationSpacing(), getMaxDecimatedPoints());
+        }
+
+        if (exitingEarly()) {
+            maxDivisor = getMaxDivisor(swipe);
+        }
+
+        scanPoints(scan.gesture);
+
+        if (scan.settled) {
+            exitedEarly = true;
+            count(GestureMetrics.EARLY_EXITS);
+        } else {
+            finalScan(swipe, scan.eRad);                       /*** IMPORTANT **/
+        }
+
+        swipe.setPhantom(scan.isPhantomSwipe);
+
+        finishScan();
+
+        return swipe;
+    }
+
+    /**
+     * ScanPoints() :: Loops through every pair of FPoints that hasn't been scanned yet,
+     * feeding the running values the final scan relies on.
+     */
+    private void scanPoints(Gesture swipe) {
+
+        final int count = swipe.getPointCount();
+        final boolean fast = fastMath();
+
+        for (int i = scan.next; i < count - 1 && !scan.settled; i++) { //Loop through FPoints in pairs
 
-        for (int i = 0; i < ps.size() - 1; i++) {                   //Loop through FPoints in pairs
+            p1 = i;                                                 //Current FPoint
+            p2 = i + 1;                                             //FPoint After
 
-            p1 = ps.get(i);                                         //Current FPoint
-            p2 = ps.get(i + 1);                                     //FPoint After
+            final float x1 = swipe.getXAt(p1);
+            final float y1 = swipe.getYAt(p1);
+            final float x2 = swipe.getXAt(p2);
+            final float y2 = swipe.getYAt(p2);
 
-            float dX = Calculator.calcDeltaF(p2.getX(), p1.getX());     //change in x
-            float dY = Calculator.calcDeltaF(p2.getY(), p1.getY());     //change in y
+            float dX = Calculator.calcDeltaF(x2, x1);                   //change in x
+            float dY = Calculator.calcDeltaF(y2, y1);                   //change in y
 
             double length = Calculator.calcLength(dX, dY);              //get length between FPoints
 
-            double currRad = Calculator.findRads(dX, -dY);              //current angle in radians, negative Y for inversion
+            double currRad = Calculator.findRads(dX, -dY, fast);        //current angle in radians, negative Y for inversion
 
-            double dRad = Calculator.getDeltaRad(currRad, prevRad);     //calculate change in radians
+            double dRad = Calculator.getDeltaRad(currRad, scan.prevRad, fast); //calculate change in radians
 
             if (!isHolding(length, dRad)) {                         //ignores holding FPoints, if held p2 is set to HEAD
-                lengths.add(length);                                //add length
-                incrementRadError(dRad, p1.getState(), length);     //calculate radian error based on MIN_DELTA_ERR
-                bodyScan(p1.getState(), dRad, length, prevLn);    /*** IMPORTANT **/
+                addLength(length);                                  //add length
+                incrementRadError(dRad, swipe.getStateAt(p1), length); //calculate radian error based on MIN_DELTA_ERR
+                bodyScan(swipe.getStateAt(p1), dRad, length, scan.prevLn); /*** IMPORTANT **/
             }
 
             final Direction dir = Calculator.getDirection(
-                    Calculator.calcDeltaF(p1.getX(), p2.getX()),
-                    Calculator.calcDeltaF(p1.getY(), p2.getY()),
+                    Calculator.calcDeltaF(x1, x2),
+                    Calculator.calcDeltaF(y1, y2),
                     false);
 
-            badDirections(dir, p2.getX(), p2.getY());
-            /** PRINT FPoint DATA **/
-            if (p1.getState() == Gesture.HEAD) {
-                printData(p1.getState(), prevRad, prevDelta, p1.getX(), p1.getY(), prevLn, p1.getTime(), Direction.UNDEFINED);
-            }
-            if (p2.getState() != Gesture.HEAD) {
-                printData(i + 1, currRad, dRad, p2.getX(), p2.getY(), length, p2.getTime(), dir);
+            badDirections(dir, x2, y2);
+            /** TRACE FPoint DATA **/
+            if (isTracing()) {
+                if (swipe.getStateAt(p1) == Gesture.HEAD) {
+                    trace(ScanTrace.POINT, p1, scan.weight, 0,
+                            x1, y1, scan.prevLn, scan.prevRad, scan.prevDelta, Direction.UNDEFINED.ordinal());
+                }
+                if (swipe.getStateAt(p2) != Gesture.HEAD) {
+                    trace(ScanTrace.POINT, p2, scan.weight, 0,
+                            x2, y2, length, currRad, dRad, dir.ordinal());
+                }
             }
 
             setPrevious(length, currRad, dRad, dir);                //sets previous values
 
+            scan.next = p2;
+
+            if (exitingEarly()) {
+                settle(swipe);
+            }
         }
+    }
 
-        finalScan(swipe, eRad);                                /*** IMPORTANT **/
+    /**
+     * GetMaxDivisor() :: The most the weight of a finished gesture can still be divided by.
+     * Redemptions need a path longer than the nice length, and the scanned length never
+     * exceeds the length of the whole path, bar the float error of summing it.
+     */
+    private double getMaxDivisor(Gesture swipe) {
+        final double ratio = (swipe.getPathLength() * 1.00001 + 0.001) / getNiceLength();
+        return (isVertical(swipe.getRadian()) ? 1.5 : 1) * Math.max(1, ratio);
+    }
 
-        swipe.setPhantom(isPhantomSwipe);
+    /**
+     * Settle() :: Labels the gesture a phantom once the lowest weight it can still end up with
+     * reaches the maximum weight. Only once more than two lengths were kept, as shorter
+     * gestures are labelled by tooTiny(), and past the initial run of held points, whose
+     * states are still being updated.
+     */
+    private void settle(Gesture swipe) {
+        if (scan.lengthCount <= 2 || swipe.getStateAt(p2) == Gesture.HEAD) {
+            return;
+        }
+        final double divisor = scan.badDirections ? 1 : maxDivisor;
+        final double bound = (scan.weight - ROUNDING_SLACK) / divisor;
+        if (bound >= getMaxWeight() + WEIGHT_MARGIN) {
+            scan.settled = true;
+            scan.isPhantomSwipe = true;
+            if (isTracing()) {
+                trace(ScanTrace.EARLY_EXIT, p2, scan.weight, 0, bound, divisor);
+            }
+        }
+    }
 
-        return swipe;
+    /**
+     * Releases the current scan, returning to the immediate scan for the next check.
+     */
+    private void finishScan() {
+        if (scan != immediate) {
+            scan.reset();
+            scan = immediate;
+        }
+        immediate.gesture = null;
     }
 
     /**
@@ -130,7 +388,7 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private boolean badFPoint(int size) {                        //BAD FPoint (BAD)
         if (size <= 2) {
-            isPhantomSwipe = true;
+            scan.isPhantomSwipe = true;
             return true;
         }                                                        //It's prolly a tap, Interceptor will handle this
         return false;
@@ -149,9 +407,9 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private void incrementRadError(double deltaRad, int s1, double ln) { //GET RAD ERROR
         if (deltaRad > getMinChangeInRads() && s1 != Gesture.HEAD && ln > 0) {
-            eRad += deltaRad;
-            if (debugging()) {
-                println("Delta Err: " + eRad);
+            scan.eRad += deltaRad;
+            if (isTracing()) {
+                trace(ScanTrace.DELTA_ERROR, p2, scan.weight, 0, scan.eRad);
             }
         }
     }
@@ -169,20 +427,20 @@ abstract class SwipeDetector extends ProcessLogicProvider {
     private boolean isHolding(double ln, double deltaRad) {    //IS HOLDING?
         deltaRad = Math.round((deltaRad) * 1000) / 1000.0;
         /** No degree change and prev hasn't moved */
-        if (p1.getState() == Gesture.HEAD && deltaRad <= 0) {
+        if (scan.gesture.getStateAt(p1) == Gesture.HEAD && deltaRad <= 0) {
             if (ln > 0) {
-                lengths.add(ln);
+                addLength(ln);
             }                    //Add to length total
-            else if (debugging()) {
-                println("EARLY ZERO LENGTH");
+            else if (isTracing()) {
+                trace(ScanTrace.EARLY_ZERO_LENGTH, p2, scan.weight, 0);
             }
-            phantomLn += ln;                                    //weird beginning length
-            p2.setState(Gesture.HEAD);                                    //not moving
+            scan.phantomLn += ln;                               //weird beginning length
+            scan.gesture.setStateAt(p2, Gesture.HEAD);                    //not moving
             return true;
         }
         /** No Lengths */
         else if (ln == 0) {                                        //There can sometimes be two FPoints at the end
-            if (debugging()) println("LATE ZERO LENGTH");
+            if (isTracing()) trace(ScanTrace.LATE_ZERO_LENGTH, p2, scan.weight, 0);
             return true;
         }
         return false;
@@ -206,22 +464,22 @@ abstract class SwipeDetector extends ProcessLogicProvider {
         if (dir == Direction.UNDEFINED) {
             return;
         }
-        if (dir != prevDir) {
-            directions = 0;
+        if (dir != scan.prevDir) {
+            scan.directions = 0;
         }
-        if (dir != direction) {
-            directions++;
-            if (directions == 3) {
-                if (direction != Direction.UNDEFINED) {
-                    weight++;
-                    badDirections = true;
-                    if (debugging()) println("BAD DIRECTIONS");
+        if (dir != scan.direction) {
+            scan.directions++;
+            if (scan.directions == 3) {
+                if (scan.direction != Direction.UNDEFINED) {
+                    scan.weight++;
+                    scan.badDirections = true;
+                    if (isTracing()) trace(ScanTrace.BAD_DIRECTIONS, p2, scan.weight, 1);
                 }
-                direction = dir;
-                if (debugging()) println("DIRECTION: " + direction);
+                scan.direction = dir;
+                if (isTracing()) trace(ScanTrace.DIRECTION, p2, scan.weight, 0, dir.ordinal());
             }
         } else {
-            directions = 0;
+            scan.directions = 0;
         }
     }
 
@@ -257,15 +515,15 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private void tooPerfect(double deltaRad) {                    //TOO PERFECT (+0.5f)
         if (deltaRad == 0) {                                    //No change in degrees
-            perfect++;
-            if (perfect == getMaxConcurrentRads()) {
-                weight += 0.5f;
-                if (debugging()) {
-                    println(".:*PERFECT COMBO*:. " + weight);
+            scan.perfect++;
+            if (scan.perfect == getMaxConcurrentRads()) {
+                scan.weight += 0.5f;
+                if (isTracing()) {
+                    trace(ScanTrace.PERFECT_COMBO, p2, scan.weight, 0.5f);
                 }
             }
         } else {
-            perfect = 0;
+            scan.perfect = 0;
         } //C-C-C-C-COMBO BREAKUR!
     }
 
@@ -278,18 +536,18 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private void crazyAngle(double deltaRad, double ln, double pln) { //CRAZY ANGLE (+1)
         if (deltaRad >= getAvgChangeInRads() && ln > getPixel() && pln > getPixel()) {
-            badAngle = !badAngle;
-            if (debugging()) {
-                println("OVER " + Math.round(Math.toDegrees(getAvgRadianError() * 100) / 100.0) + " ANGLE");
+            scan.badAngle = !scan.badAngle;
+            if (isTracing()) {
+                trace(ScanTrace.OVER_ANGLE, p2, scan.weight, 0, deltaRad, ln, pln, getAvgChangeInRads());
             }
-            if (!badAngle) {
-                eRad = 0;
+            if (!scan.badAngle) {
+                scan.eRad = 0;
             }
-        } else if (badAngle) {
-            weight++;
-            badAngle = false;
-            if (debugging()) {
-                println("CRAZY ANGLE " + weight);
+        } else if (scan.badAngle) {
+            scan.weight++;
+            scan.badAngle = false;
+            if (isTracing()) {
+                trace(ScanTrace.CRAZY_ANGLE, p2, scan.weight, 1);
             }
         }
     }
@@ -328,13 +586,18 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private void finalScan(Gesture swipe, double err) { /** FINAL SCAN **/
 
-        totalLn = Calculator.calcTotal(lengths); /** Calculates total length */
+        scan.totalLn = scan.lengthTotal; /** Calculates total length */
 
-        if (lengths.size() > 2) { /** Ignores small swipes */
+        if (scan.lengthCount > 2) { /** Ignores small swipes */
 
-            float deltaV = Calculator.getDeltaVelocity(lengths, getAvgSpeedForVelocity());
-            double avg = Calculator.calcAverage(totalLn, lengths.size());
-            double stdDev = Calculator.calcStandardDeviation(lengths);
+            /* Creates imaginary speed for the first length, which joins the lengths from here on */
+            final double ghost = scan.firstLength * getAvgSpeedForVelocity();
+            final int count = scan.lengthCount + 1;
+
+            float deltaV = (float) (scan.lastLength - ghost);
+            double avg = Calculator.calcAverage(scan.totalLn, count);
+            double stdDev = Calculator.calcStandardDeviation(count,
+                    scan.lengthSum + ghost, scan.lengthSquares + ghost * ghost);
 
 //            //Apparently this is no longer necessary as we can't reproduce phantom
 //            //swipes than can be prevented with this logic.
@@ -345,7 +608,7 @@ abstract class SwipeDetector extends ProcessLogicProvider {
             checkErrors(err, avg);
 
             /** Odd jump, larger than 2xAverage */
-            isJumping(lengths, avg);
+            isJumping(ghost, avg);
 
             /** Phantom Lengths make majority */
             phantomLengths(err);//total);
@@ -361,30 +624,28 @@ abstract class SwipeDetector extends ProcessLogicProvider {
             terribleSwipe(stdDev);
 
             /** Good Downward Vertical Direction */
-            verticalSave(swipe.getRadian(), totalLn);
+            verticalSave(swipe.getRadian(), scan.totalLn);
 
             /** Phantom swipes are typically less than niceLength long, but weight will identify if they're shit */
-            label(totalLn, err, avg);
+            label(scan.totalLn, err, avg);
 
 //					.:UNRELIABLE:.
 //			/** The longer the time, the better the swipes */
 //			goodTimes();
 
-            /** PRINT RETRIEVED DATA **/
-            if (debugging()) {
-                println("DeltaV: " + deltaV + " Length: " + totalLn);
-                println("N Std Dev: " + stdDev + " Avg L: " + avg);
-            } //PRINT
+            /** TRACE RETRIEVED DATA **/
+            if (isTracing()) {
+                trace(ScanTrace.STATISTICS, -1, scan.weight, 0, deltaV, scan.totalLn, stdDev, avg);
+            } //TRACE
 
         } else {
             /** If the one FPoint is closer to the end than the beginning,
              bad news small swipe! */
-            tooTiny(swipe.getRadian(), totalLn);
+            tooTiny(swipe.getRadian(), scan.totalLn);
         }
 
-        if (debugging()) { /** PRINT DATA **/
-            println("Deg Err: " + (Math.round((err) * 1000) / 1000.0));
-            println("Time Taken: " + deltaTime);
+        if (isTracing()) { /** TRACE DATA **/
+            trace(ScanTrace.SUMMARY, -1, scan.weight, 0, err, scan.deltaTime);
         }
 
     }
@@ -410,15 +671,15 @@ abstract class SwipeDetector extends ProcessLogicProvider {
 
     /**
      * IsJumping() :: Checks for oddly large length between FPoints that is larger than the
-     * Touch's average length multiplied by a JUMP_RATIO
-     */
-    private void isJumping(List<Double> nums, double avg) { //IS JUMPING (*2) //WAS +1
-        for (int i = 0; i < nums.size(); i++) {
-            if (nums.get(i) > getJumpLength()) { //Odd jumps in length
-                weight++;
-                if (debugging()) {
-                    println("JUMPER " + weight);
-                }
+     * Touch's average length multiplied by a JUMP_RATIO. Jumps are counted as lengths are added,
+     * the imaginary first length is the only one left to check.
+     */
+    private void isJumping(double ghost, double avg) { //IS JUMPING (*2) //WAS +1
+        final int jumps = scan.jumps + (ghost > getJumpLength() ? 1 : 0);
+        for (int i = 0; i < jumps; i++) { //Odd jumps in length
+            scan.weight++;
+            if (isTracing()) {
+                trace(ScanTrace.JUMPER, -1, scan.weight, 1);
             }
         }
     }
@@ -431,15 +692,16 @@ abstract class SwipeDetector extends ProcessLogicProvider {
     private void checkErrors(double e, double avg) { //CHECK ERRORS (+1 || +(e - MAX_ERR))
         //That was terrible, really awful
         if (e > getAvgRadianError()) {
-            weight++;
-            if (debugging()) {
-                println("ERRORS " + weight);
+            scan.weight++;
+            if (isTracing()) {
+                trace(ScanTrace.ERRORS, -1, scan.weight, 1, e);
             }
             if (e > getMaxRadianError() && avg > getAverageLength()) {
-                weight += e - getMaxRadianError();
-                weight = Math.round(weight * 10) / 10.0f;
-                if (debugging()) {
-                    println("MAX ERRORS " + weight);
+                final float before = scan.weight;
+                scan.weight += e - getMaxRadianError();
+                scan.weight = Math.round(scan.weight * 10) / 10.0f;
+                if (isTracing()) {
+                    trace(ScanTrace.MAX_ERRORS, -1, scan.weight, scan.weight - before, e, avg);
                 }
             }
         }
@@ -452,17 +714,17 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      * change in degrees. It's weird and robotic.
      */
     private void phantomLengths(double e) {//double totalLength) { //PHANTOM LINE (+PHANLN)
-        if (phantomLn > 0) {
+        if (scan.phantomLn > 0) {
             if (e > getAvgRadianError()) {
-                weight++;
+                scan.weight++;
                 if (e > getMaxRadianError()) {
-                    weight += phantomLn;
-                    if (debugging()) {
-                        println("PHANTOM LINE! " + weight);
+                    scan.weight += scan.phantomLn;
+                    if (isTracing()) {
+                        trace(ScanTrace.PHANTOM_LINE, -1, scan.weight, 1 + scan.phantomLn, e, scan.phantomLn);
                     }
                 } else {
-                    if (debugging()) {
-                        println("PHANTOM LINE? " + weight);
+                    if (isTracing()) {
+                        trace(ScanTrace.PHANTOM_LINE, -1, scan.weight, 1, e, scan.phantomLn);
                     }
                 }
             }
@@ -487,30 +749,32 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      * are within a reasonable bounds of
      */
     private boolean verticalSave(double rad, double ln) { //VERTICAL SAVE (weight/1.5)
-        if (((rad > 4.3f && rad < 5.1f) || (rad > 0.8f && rad < 2.4f))
-                && !badDirections && ln > getNiceLength()) {
-            weight /= 1.5;
-            if (debugging()) {
-                println("VERTICAL SAVE! " + weight);
+        if (isVertical(rad) && !scan.badDirections && ln > getNiceLength()) {
+            final float before = scan.weight;
+            scan.weight /= 1.5;
+            if (isTracing()) {
+                trace(ScanTrace.VERTICAL_SAVE, -1, scan.weight, scan.weight - before, rad, ln);
             }
             return true;
         }
         return false;
     }
 
+    private static boolean isVertical(double rad) {
+        return (rad > 4.3f && rad < 5.1f) || (rad > 0.8f && rad < 2.4f);
+    }
+
     /**
      * BadEnding() :: When the last two FPoints of a swipe, when added together, do not equal
      * the AVERAGE_LENGTH of the Touch. This is suspicious and increments the weight.
      * Sadly there is no GoodEnding in the world of swipes. :(
      */
     private void badEnding(double avg) { //BAD ENDING (+0.5f)
-        int index = lengths.size() - 1;
-        int sub = 1;
         //Last two FPoints don't meet average length x AVG_RATIO
-        if ((lengths.get(index) + lengths.get(index - sub)) <= avg * getAvgEndLengthRatio()) {
-            weight += 0.5f;
-            if (debugging()) {
-                println("BAD ENDING " + weight);
+        if ((scan.lastLength + scan.prevLastLength) <= avg * getAvgEndLengthRatio()) {
+            scan.weight += 0.5f;
+            if (isTracing()) {
+                trace(ScanTrace.BAD_ENDING, -1, scan.weight, 0.5f, scan.lastLength + scan.prevLastLength, avg);
             }
         }
     }
@@ -522,9 +786,9 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      */
     private void terribleSwipe(double std) { //TERRIBLE SWIPE (+1)
         if (std >= getMaxStandardDeviation()) {
-            weight++;
-            if (debugging()) {
-                println("STD " + Math.round(std) + " TERRIBLE SWIPE " + weight);
+            scan.weight++;
+            if (isTracing()) {
+                trace(ScanTrace.TERRIBLE_SWIPE, -1, scan.weight, 1, std);
             }
         }
     }
@@ -535,19 +799,15 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      * these swipes shouldn't even exist to be quite honest.
      */
     private void tooTiny(double rad, double ln) { //TOO TINY (BAD)
-        if (lengths.size() > 0) {
-            float totalL = 0;
-            for (double length : lengths) {
-                totalL += length;
-            }
+        if (scan.lengthCount > 0) {
             //If majority of FPoints close to end
-            if (lengths.get(lengths.size() - 1) < (totalL * 0.25f)) {
+            if (scan.lastLength < (scan.lengthTotal * 0.25f)) {
                 if (!verticalSave(rad, ln)) {
                     // Phantom vertical swipes are rare,
                     // So we minimize how aggressively we check them
-                    isPhantomSwipe = true;
-                    if (debugging()) {
-                        println("TINY ENDING");
+                    scan.isPhantomSwipe = true;
+                    if (isTracing()) {
+                        trace(ScanTrace.TINY_ENDING, -1, scan.weight, 0, scan.lastLength, scan.lengthTotal);
                     }
                 }
             }
@@ -563,21 +823,22 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      * if the length is less than the MAX_SWIPE, while the average is greater than the MINIMUM_AVERAGE
      */
     private void label(double ln, double err, double avg) { /** FINAL LABEL */
-        if (ln > getNiceLength() && !badDirections) { // Has human qualities (weight/2)
-            weight /= ln / getNiceLength();
-            if (debugging()) {
-                println("GOOD LENGTH REDEMPTION " + weight);
+        if (ln > getNiceLength() && !scan.badDirections) { // Has human qualities (weight/2)
+            final float before = scan.weight;
+            scan.weight /= ln / getNiceLength();
+            if (isTracing()) {
+                trace(ScanTrace.GOOD_LENGTH_REDEMPTION, -1, scan.weight, scan.weight - before, ln);
             }
         }
-        if (weight < getMaxWeight()) {
-            isPhantomSwipe = false;
-            if (debugging()) {
-                println("GOOD SWIPE: " + weight);
+        if (scan.weight < getMaxWeight()) {
+            scan.isPhantomSwipe = false;
+            if (isTracing()) {
+                trace(ScanTrace.GOOD_SWIPE, -1, scan.weight, 0, getMaxWeight());
             }
         } else {
-            isPhantomSwipe = true;
-            if (debugging()) {
-                println("BAD SWIPE: " + weight);
+            scan.isPhantomSwipe = true;
+            if (isTracing()) {
+                trace(ScanTrace.BAD_SWIPE, -1, scan.weight, 0, getMaxWeight());
             }
         }
     }
@@ -604,20 +865,16 @@ abstract class SwipeDetector extends ProcessLogicProvider {
     @Override
     protected void reset() {
         super.reset();
-        direction = Direction.UNDEFINED;
-        prevDir = Direction.UNDEFINED;
-        isPhantomSwipe = false;
-        badDirections = false;
-        badAngle = false;
-        phantomLn = 0;
-        prevDelta = 0;
-        perfect = 0;
-        prevRad = 0;
-        totalLn = 0;
-        weight = 0;
-        prevLn = 0;
-        eRad = 0;
-        lengths.clear();
+        scan.reset();
+    }
+
+    /**
+     * Adds a length to the running statistics used by the final scan
+     *
+     * @param ln length between two FPoints
+     */
+    private void addLength(double ln) {
+        scan.addLength(ln, getJumpLength());
     }
 
     /**
@@ -629,10 +886,10 @@ abstract class SwipeDetector extends ProcessLogicProvider {
      * @param s Direction detected it was heading in
      */
     private void setPrevious(double l, double r, double d, Direction s) {
-        prevLn = l;
-        prevRad = r;
-        prevDelta = d;
-        prevDir = s;
+        scan.prevLn = l;
+        scan.prevRad = r;
+        scan.prevDelta = d;
+        scan.prevDir = s;
     }
 
 }
\ No newline at end of file
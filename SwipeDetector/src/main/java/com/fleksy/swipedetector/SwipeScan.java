@@ -0,0 +1,130 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.ScanTrace;
+
+/**
+ * Running state of a single phantom swipe scan. SwipeDetector keeps one of these for
+ * immediate checks and one per streamed gesture, so points can be scanned as they arrive
+ * and the final scan only has to read the accumulated values.
+ */
+final class SwipeScan {
+
+    Gesture gesture; // Gesture being streamed, null when the scan is free
+    int next; // Index of the first FPoint of the next pair to be scanned
+    ScanTrace trace; // Entries recorded while streaming, until the gesture is checked
+
+    boolean isPhantomSwipe; // Final flag setting gesture's authenticity
+    boolean settled; // Outcome can no longer change, the rest of the gesture is skipped
+    float weight; // Main Counter For Number of Bad Flags (The Weight)
+
+    int perfect;
+    int directions;
+    long deltaTime;
+    double eRad;
+    double prevLn;
+    double totalLn;
+    double prevRad;
+    double prevDelta;
+    float phantomLn;
+    Direction prevDir;
+    Direction direction;
+    boolean badAngle;
+    boolean badDirections;
+
+    int lengthCount; // Number of lengths kept between FPoints
+    float lengthTotal; // Sum of all lengths, accumulated as a float like Calculator.calcTotal
+    double lengthSum; // Sum of all lengths
+    double lengthSquares; // Sum of all squared lengths
+    double firstLength;
+    double lastLength;
+    double prevLastLength;
+    int jumps; // Lengths that went over the jump length
+
+    void reset() {
+        gesture = null;
+        next = 0;
+        if (trace != null) {
+            trace.clear();
+        }
+        isPhantomSwipe = false;
+        settled = false;
+        weight = 0;
+        perfect = 0;
+        directions = 0;
+        deltaTime = 0;
+        eRad = 0;
+        prevLn = 0;
+        totalLn = 0;
+        prevRad = 0;
+        prevDelta = 0;
+        phantomLn = 0;
+        prevDir = Direction.UNDEFINED;
+        direction = Direction.UNDEFINED;
+        badAngle = false;
+        badDirections = false;
+        lengthCount = 0;
+        lengthTotal = 0;
+        lengthSum = 0;
+        lengthSquares = 0;
+        firstLength = 0;
+        lastLength = 0;
+        prevLastLength = 0;
+        jumps = 0;
+    }
+
+    /**
+     * Takes over every running value of another scan.
+     */
+    void copyFrom(SwipeScan other) {
+        gesture = other.gesture;
+        next = other.next;
+        isPhantomSwipe = other.isPhantomSwipe;
+        settled = other.settled;
+        weight = other.weight;
+        perfect = other.perfect;
+        directions = other.directions;
+        deltaTime = other.deltaTime;
+        eRad = other.eRad;
+        prevLn = other.prevLn;
+        totalLn = other.totalLn;
+        prevRad = other.prevRad;
+        prevDelta = other.prevDelta;
+        phantomLn = other.phantomLn;
+        prevDir = other.prevDir;
+        direction = other.direction;
+        badAngle = other.badAngle;
+        badDirections = other.badDirections;
+        lengthCount = other.lengthCount;
+        lengthTotal = other.lengthTotal;
+        lengthSum = other.lengthSum;
+        lengthSquares = other.lengthSquares;
+        firstLength = other.firstLength;
+        lastLength = other.lastLength;
+        prevLastLength = other.prevLastLength;
+        jumps = other.jumps;
+    }
+
+    /**
+     * Adds a length between two FPoints to the running statistics.
+     *
+     * @param ln         Length between two FPoints
+     * @param jumpLength Length considered an odd jump
+     */
+    void addLength(double ln, float jumpLength) {
+        if (lengthCount == 0) {
+            firstLength = ln;
+        }
+        prevLastLength = lastLength;
+        lastLength = ln;
+        lengthTotal += ln;
+        lengthSum += ln;
+        lengthSquares += ln * ln;
+        if (ln > jumpLength) {
+            jumps++;
+        }
+        lengthCount++;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.fleksy.swipedetector;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of the thresholds ProcessLogicProvider decides phantom swipes with. Lengths
+ * are kept as the divisors of the view dimension they are taken from, so a profile tuned on
+ * one keyboard size carries over to others. DEFAULT holds the values tuned for the Fleksy
+ * keyboard, ThresholdTuner searches for better ones on a labelled corpus.
+ */
+public final class ThresholdProfile {
+
+    public static final int JUMP_DIVISOR = 0;           // Width divided by it gives the jump length
+    public static final int NICE_DIVISOR = 1;           // Height divided by it gives the nice length
+    public static final int AVERAGE_DIVISOR = 2;        // Height divided by it gives the average length
+    public static final int MAX_CONCURRENT_RADS = 3;
+    public static final int MAX_WEIGHT = 4;
+    public static final int AVG_RADIAN_ERROR = 5;
+    public static final int MAX_RADIAN_ERROR = 6;
+    public static final int MIN_CHANGE_IN_RADS = 7;
+    public static final int AVG_CHANGE_IN_RADS = 8;
+    public static final int MAX_STANDARD_DEVIATION = 9;
+    public static final int AVG_END_LENGTH_RATIO = 10;
+    public static final int AVG_SPEED_FOR_VELOCITY = 11;
+    public static final int PARAMETERS = 12;
+
+    private static final String[] NAMES = {
+            "jumpDivisor", "niceDivisor", "averageDivisor", "maxConcurrentRads", "maxWeight",
+            "avgRadianError", "maxRadianError", "minChangeInRads", "avgChangeInRads",
+            "maxStandardDeviation", "avgEndLengthRatio", "avgSpeedForVelocity"
+    };
+
+    public static final ThresholdProfile DEFAULT = new ThresholdProfile(new float[]{
+            8, 8, 40, 3, 4, 1.57f, 3.14f, 0.174f, 0.785f, 16, 0.9f, 0.7f
+    });
+
+    private final float[] values;
+
+    private ThresholdProfile(float[] values) {
+        this.values = values;
+    }
+
+    public float get(int parameter) {
+        return values[parameter];
+    }
+
+    /**
+     * @return A copy of this profile with one threshold changed
+     */
+    public ThresholdProfile with(int parameter, float value) {
+        final float[] changed = values.clone();
+        changed[parameter] = value;
+        return new ThresholdProfile(changed);
+    }
+
+    public static String getName(int parameter) {
+        return NAMES[parameter];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ThresholdProfile && Arrays.equals(values, ((ThresholdProfile) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        for (int i = 0; i < PARAMETERS; i++) {
+            out.append(NAMES[i]).append(": ").append(values[i]).append('\n');
+        }
+        return out.toString();
+    }
+
+}
@@ -1,11 +1,11 @@
 package com.fleksy.swipedetector;
 
-import android.util.Log;
-
 import com.fleksy.swipedetector.model.Direction;
-import com.fleksy.swipedetector.model.FPoint;
 import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.model.GesturePool;
 import com.fleksy.swipedetector.tool.Calculator;
+import com.fleksy.swipedetector.tool.GestureMetrics;
+import com.fleksy.swipedetector.tool.PhantomClassifier;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,15 +15,75 @@ import java.util.List;
  */
 abstract class TouchRefinery extends SwipeDetector {
 
-    private final Gesture[] touches;
-    private final int MAX_FINGERS = 10;
+    private static final int MAX_SLOTS = 64;   // Bits in the mask of active slots
+    private static final int MAPPED_IDS = 64;  // Pointer IDs found through a table, others are searched
+
+    /* Touches are held in slots, a pointer ID takes the slot of the same index whenever it is
+       free, so that slots match pointer IDs as Android hands them out, or the lowest free one.
+       The slots are sized by the first touch, once subclasses are constructed */
+    private Gesture[] touches;
+    private int[] slotIds;
+    private final int[] idSlots = new int[MAPPED_IDS]; // Slot + 1 of every mapped pointer ID
+    private long slotMask;
+    private long active;
+    private final int MAX_POOLED = 32;
+    private final GesturePool pool = new GesturePool(MAX_POOLED);
     private Object doubleTapObj;
     private long prevTime = 0;
     private boolean isTapping = false;
+    private final PhantomClassifier rules = new PhantomClassifier() {
+        @Override
+        public boolean isPhantom(Gesture swipe, float width, float height) {
+            return check(swipe).isPhantom();
+        }
+    };
+    private PhantomClassifier classifier = rules;
 
     public TouchRefinery(final float pixelSize) {
         super(pixelSize);
-        touches = new Gesture[MAX_FINGERS];
+    }
+
+    private void sizeSlots() {
+        final int slots = Math.max(1, Math.min(MAX_SLOTS, getMaxPointers()));
+        touches = new Gesture[slots];
+        slotIds = new int[slots];
+        slotMask = slots == MAX_SLOTS ? -1L : (1L << slots) - 1;
+    }
+
+    /**
+     * The number of pointers tracked at once, pointers going down while every slot is taken
+     * are ignored. Called once, when the first touch is stored or getTouches() is first called,
+     * so it may rely on fields set by the constructor of a subclass.
+     *
+     * @return Number of touch slots, up to 64. Default 10.
+     */
+    protected int getMaxPointers() {
+        return 10;
+    }
+
+    /**
+     * Replaces the rules of the SwipeDetector as what decides whether swipes are phantoms, for
+     * instance with a DecisionTree or LinearModel trained for a device class. Gestures are then
+     * no longer streamed nor traced, and the thresholds only decide taps.
+     *
+     * @param classifier Classifier to use, or null to go back to the rules
+     */
+    public final void setClassifier(PhantomClassifier classifier) {
+        this.classifier = classifier != null ? classifier : rules;
+    }
+
+    /**
+     * @return The classifier deciding phantom swipes, the rules of the SwipeDetector by default
+     */
+    public final PhantomClassifier getClassifier() {
+        return classifier;
+    }
+
+    /**
+     * @return True while the rules of the SwipeDetector decide phantom swipes
+     */
+    protected final boolean classifyingByRules() {
+        return classifier == rules;
     }
 
     /**
@@ -38,41 +98,272 @@ abstract class TouchRefinery extends SwipeDetector {
         return getHeight() / 12.0f;
     }
 
-    protected final void clearTouches() {
-        for (int i = 0; i < touches.length; i++) {
-            touches[i] = null;
+    /**
+     * How sure the rules must be that a gesture still being drawn is human before it is
+     * predicted to be a swipe, see predict().
+     *
+     * @return The share of getMaxWeight() the predicted weight must stay below. Default 0.5.
+     */
+    protected float getPredictionMargin() {
+        return 0.5f;
+    }
+
+    /**
+     * Predicts the swipe a gesture that is still being drawn will turn into, when predicting()
+     * is enabled. Once the gesture is longer than the minimum length for its direction and
+     * its predicted weight is well below the maximum weight, onPredictedSwipe() is called, at
+     * most once per gesture. Its release later either confirms the prediction, by calling
+     * onDetectedSwipe() in the same direction while getPrediction() still holds it, or
+     * retracts it through onRetractedSwipe() before any other callback. Only the rules make
+     * predictions, nothing is predicted while another classifier is set.
+     *
+     * @param touch Gesture that is still being drawn, already streamed
+     */
+    protected final void predict(Gesture touch, float swipeFactor, boolean invertHorizontal) {
+        if (!predicting() || !classifyingByRules() || touch.refined()
+                || touch.getPrediction() != Direction.UNDEFINED) {
+            return;
+        }
+        final Direction direction = Calculator.getDirection(touch.getDeltaX(), touch.getDeltaY(), invertHorizontal);
+        if (tapChecker(touch, direction, touch.getLength(), swipeFactor)
+                || predictWeight(touch) >= getMaxWeight() * getPredictionMargin()) {
+            return;
+        }
+        touch.setPrediction(direction);
+        count(GestureMetrics.PREDICTIONS);
+        final long start = startTiming();
+        onPredictedSwipe(touch, direction);
+        stopTiming(GestureMetrics.CALLBACK, start);
+    }
+
+    /**
+     * Retracts the prediction made for a gesture, if it still holds one.
+     *
+     * @param touch Gesture that won't be a swipe in the predicted direction
+     */
+    protected final void retractPrediction(Gesture touch) {
+        final Direction predicted = touch.getPrediction();
+        if (predicted != Direction.UNDEFINED) {
+            touch.setPrediction(Direction.UNDEFINED);
+            count(GestureMetrics.RETRACTIONS);
+            final long start = startTiming();
+            onRetractedSwipe(touch, predicted);
+            stopTiming(GestureMetrics.CALLBACK, start);
         }
     }
 
-    protected final boolean ignoreEvent(final int index) {
-        return isOutOfBounds(index) || touches[index] == null;
+    /**
+     * Called once a gesture that is still being drawn is confidently a swipe, see predict().
+     *
+     * @param swipe     Gesture being drawn, only valid for the duration of the call
+     * @param direction Direction the swipe is heading in
+     */
+    protected void onPredictedSwipe(Gesture swipe, Direction direction) {
     }
 
-    private boolean isOutOfBounds(final int index) {
-        return (index < 0 || index >= MAX_FINGERS);
+    /**
+     * Called when a predicted swipe ended up a tap, a phantom, a swipe in another direction, or
+     * was never refined, as happens with holds, multi touches and cancelled touches.
+     *
+     * @param touch     Gesture that was predicted, only valid for the duration of the call
+     * @param direction Direction it was predicted to take
+     */
+    protected void onRetractedSwipe(Gesture touch, Direction direction) {
     }
 
-    protected final Gesture getLatestTouch() {
-        for (int i = (MAX_FINGERS - 1); i >= 0; i--) {
-            if (touches[i] != null) {
-                return touches[i];
+    /**
+     * Enables pooling mode. Gestures and the lists used to deliver them are then reused instead
+     * of being allocated for every touch. In exchange the following ownership rules apply:
+     * <ul>
+     * <li>Gestures passed to onProcessTouch() belong to the listener until it hands them back
+     * through recycle(). Gestures that are never recycled are simply left to the garbage collector.</li>
+     * <li>Gestures passed to any other callback are only valid for the duration of that callback,
+     * as the library recycles the ones it no longer needs once all fingers are lifted.</li>
+     * <li>Lists passed to callbacks must not be kept.</li>
+     * </ul>
+     *
+     * @return True to recycle gestures, False by default
+     */
+    protected boolean pooling() {
+        return false;
+    }
+
+    /**
+     * Hands a gesture delivered by onProcessTouch() back to the pool. It will be reused once
+     * all fingers are lifted, so it must no longer be read after this call returns to the
+     * listener. Does nothing unless pooling() is enabled.
+     *
+     * @param touch Gesture the listener is done with
+     */
+    public final void recycle(Gesture touch) {
+        if (pooling()) {
+            pool.release(touch);
+        }
+    }
+
+    /**
+     * Moves every recycled gesture back into the pool. Must only be called when no touch is
+     * being tracked or processed.
+     */
+    protected final void recycleGestures() {
+        pool.flush();
+    }
+
+    protected final Gesture obtainGesture(Object tag, int id, float x, float y, long eventTime, Gesture parent) {
+        if (pooling()) {
+            return pool.obtain(tag, id, x, y, eventTime, parent);
+        }
+        return new Gesture(tag, id, x, y, eventTime, parent);
+    }
+
+    /**
+     * Obtains a gesture holding the same points as the given one, without its parent or children.
+     *
+     * @param touch Gesture to copy
+     * @return The copy
+     */
+    protected final Gesture copyGesture(Gesture touch) {
+        final Gesture copy = obtainGesture(touch.getTag(), touch.getId(),
+                touch.getXAt(0), touch.getYAt(0), touch.getTimeAt(0), null);
+        for (int i = 1; i < touch.getPointCount(); i++) {
+            copy.addPoint(touch.getStateAt(i), touch.getXAt(i), touch.getYAt(i), touch.getTimeAt(i));
+        }
+        copy.setHold(touch.isHeld());
+        copy.setPrediction(touch.getPrediction());
+        return copy;
+    }
+
+    private List<Gesture> obtainList() {
+        if (pooling()) {
+            return pool.obtainList();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Hands back a list returned by refinery() or abandonChildren() once it has been read.
+     *
+     * @param list List that is no longer needed
+     */
+    protected final void recycleList(List<Gesture> list) {
+        pool.recycleList(list);
+    }
+
+    /**
+     * Abandons the touch's children, using a pooled list when pooling() is enabled.
+     *
+     * @param touch The gesture giving up its children
+     * @return The abandoned children
+     */
+    protected final List<Gesture> abandonChildren(Gesture touch) {
+        if (pooling() && touch.hasChildren()) {
+            return touch.abandonChildren(pool.obtainList());
+        }
+        return touch.abandonChildren();
+    }
+
+    protected final void clearTouches() {
+        for (long slots = active; slots != 0; slots &= slots - 1) {
+            final int slot = Long.numberOfTrailingZeros(slots);
+            if (pooling() && !touches[slot].processed()) {
+                pool.release(touches[slot]);
             }
+            release(slot);
         }
-        return null;
     }
 
-    public final Gesture getTouchAt(final int index) {
-        if (isOutOfBounds(index)) {
+    protected final boolean ignoreEvent(final int pointerId) {
+        return slotOf(pointerId) < 0;
+    }
+
+    /**
+     * @return The touch in the highest slot, the one of the highest pointer ID when they match
+     */
+    protected final Gesture getLatestTouch() {
+        if (active == 0) {
             return null;
         }
-        return touches[index];
+        return touches[63 - Long.numberOfLeadingZeros(active)];
+    }
+
+    public final Gesture getTouchAt(final int pointerId) {
+        final int slot = slotOf(pointerId);
+        return slot < 0 ? null : touches[slot];
     }
 
-    protected final void setTouchAt(final int index, final Gesture touch) {
-        if (isOutOfBounds(index)) {
+    /**
+     * Stores the touch of a pointer, taking a slot for it if it had none. Storing null frees
+     * the pointer's slot.
+     */
+    protected final void setTouchAt(final int pointerId, final Gesture touch) {
+        int slot = slotOf(pointerId);
+        if (touch == null) {
+            if (slot >= 0) {
+                release(slot);
+            }
             return;
         }
-        touches[index] = touch;
+        if (slot < 0) {
+            slot = take(pointerId);
+            if (slot < 0) {
+                return;                                     // Every slot is taken
+            }
+        }
+        touches[slot] = touch;
+    }
+
+    /**
+     * @return Number of touches currently held
+     */
+    public final int getTouchCount() {
+        return Long.bitCount(active);
+    }
+
+    /**
+     * @return Bit mask of the slots of getTouches() holding a touch
+     */
+    protected final long getActiveSlots() {
+        return active;
+    }
+
+    private int slotOf(final int pointerId) {
+        if (pointerId >= 0 && pointerId < MAPPED_IDS) {
+            return idSlots[pointerId] - 1;
+        }
+        for (long slots = active; slots != 0; slots &= slots - 1) {
+            final int slot = Long.numberOfTrailingZeros(slots);
+            if (slotIds[slot] == pointerId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int take(final int pointerId) {
+        if (touches == null) {
+            sizeSlots();
+        }
+        final long free = ~active & slotMask;
+        if (free == 0) {
+            return -1;
+        }
+        final int slot = (pointerId >= 0 && pointerId < touches.length && (free & (1L << pointerId)) != 0)
+                ? pointerId : Long.numberOfTrailingZeros(free);
+        active |= 1L << slot;
+        slotIds[slot] = pointerId;
+        if (pointerId >= 0 && pointerId < MAPPED_IDS) {
+            idSlots[pointerId] = slot + 1;
+        }
+        return slot;
+    }
+
+    private void release(final int slot) {
+        touches[slot] = null;
+        active &= ~(1L << slot);
+        final int pointerId = slotIds[slot];
+        if (pointerId >= 0 && pointerId < MAPPED_IDS) {
+            idSlots[pointerId] = 0;
+        }
     }
 
     protected final Object getDoubleTapObj() {
@@ -83,7 +374,13 @@ abstract class TouchRefinery extends SwipeDetector {
         doubleTapObj = obj;
     }
 
+    /**
+     * @return The touches by slot, empty slots hold null
+     */
     protected final Gesture[] getTouches() {
+        if (touches == null) {
+            sizeSlots();
+        }
         return touches;
     }
 
@@ -95,33 +392,60 @@ abstract class TouchRefinery extends SwipeDetector {
      * to be two taps that reside at the beginning and end of the original touch.
      */
     protected final List<Gesture> refinery(Gesture touch, float swipeFactor, boolean invertHorizontal) {
+        final long start = startTiming();
+        final List<Gesture> refined = refine(touch, swipeFactor, invertHorizontal);
+        stopTiming(GestureMetrics.REFINERY, start);
+        return refined;
+    }
+
+    private List<Gesture> refine(Gesture touch, float swipeFactor, boolean invertHorizontal) {
         if (touch.refined()) {
+            retractPrediction(touch);
             return refineTouch(touch, false);
         }
         final Direction direction = Calculator.getDirection(touch.getDeltaX(), touch.getDeltaY(), invertHorizontal);
         touch.setIgnore(timeCheck(touch));
         if (debugging()) {
-            Log.w(getClass().getSimpleName(), "Swipe Factor : " + swipeFactor);
+            log("Swipe Factor : " + swipeFactor);
         }
         if (tapChecker(touch, direction, touch.getLength(), swipeFactor)) {    // TAPS
+            retractPrediction(touch);
             touch.setDirection(Direction.TAP);
             isTapping = true;
-            return refineTouch(touch, onCheckedTap(touch));
+            count(GestureMetrics.TAPS);
+            final long start = startTiming();
+            final boolean checked = onCheckedTap(touch);
+            stopTiming(GestureMetrics.CALLBACK, start);
+            return refineTouch(touch, checked);
         } else {                            // SWIPES
-            touch = check(touch);
+            long start = startTiming();
+            touch.setPhantom(classifier.isPhantom(touch, getWidth(), getHeight()));
+            stopTiming(GestureMetrics.CHECK, start);
             if (touch.isPhantom()) {        // PHANTOM SWIPES
+                retractPrediction(touch);
                 if (debugging()) {
-                    Log.e(getClass().getSimpleName(), "PHANTOM SWIPE " + getRawOutput());
+                    log("PHANTOM SWIPE " + getRawOutput());
                 }
-                return refineTouch(touch, onPhantomSwipe(touch) && !isTap(touch.getLength(), direction, 1.0f));
+                count(GestureMetrics.PHANTOMS);
+                start = startTiming();
+                final boolean phantom = onPhantomSwipe(touch);
+                stopTiming(GestureMetrics.CALLBACK, start);
+                return refineTouch(touch, phantom && !isTap(touch.getLength(), direction, 1.0f));
             } else {                        // GOOD SWIPE
+                if (touch.getPrediction() != direction) {
+                    retractPrediction(touch);
+                }
                 touch.setDirection(direction);
                 if (debugging()) {
-                    Log.w(getClass().getSimpleName(), "GOOD SWIPE " + getRawOutput());
+                    log("GOOD SWIPE " + getRawOutput());
                 }
+                count(GestureMetrics.SWIPES);
+                start = startTiming();
                 isTapping = onDetectedSwipe(touch);
+                stopTiming(GestureMetrics.CALLBACK, start);
+                touch.setPrediction(Direction.UNDEFINED);   // Confirmed
                 touch.refine();
-                ArrayList<Gesture> swipe = new ArrayList<>();
+                List<Gesture> swipe = obtainList();
                 swipe.add(touch);
                 return swipe;
             }
@@ -160,24 +484,29 @@ abstract class TouchRefinery extends SwipeDetector {
      */
     private List<Gesture> refineTouch(final Gesture old, final boolean phantom) { /* REFINE TAP */
 
-        final List<Gesture> freed = new ArrayList<>();
+        final List<Gesture> freed = obtainList();
         final Gesture parent = old.leaveParent();
-        final FPoint start = old.getFirstPoint();
 
-        freed.add(makeTap(start, old, parent, phantom));
+        freed.add(makeTap(old.getXAt(0), old.getYAt(0), old.getTimeAt(0), old, parent, phantom));
 
         if (phantom) {
-            final FPoint end = Calculator.findFurthestPoint(start, old.getLastPoint(), old.getPoints());
-            freed.add(makeTap(end, old, parent, true));
+            if (old.getDroppedCount() > 0) {    // The furthest point may be gone, but is still tracked
+                freed.add(makeTap(old.getFurthestX(), old.getFurthestY(), old.getFurthestTime(), old, parent, true));
+            } else {
+                final int furthest = Calculator.findFurthestPoint(old, fastMath());
+                freed.add(makeTap(old.getXAt(furthest), old.getYAt(furthest), old.getTimeAt(furthest), old, parent, true));
+            }
         }
 
         decideChildrensFate(parent, old, freed);
 
+        recycle(old);                       // Replaced by its taps
+
         return freed;
     }
 
-    private Gesture makeTap(FPoint origin, Gesture old, Gesture parent, boolean phantom) {
-        Gesture touch = new Gesture(old.getTag(), old.getId(), origin.getX(), origin.getY(), origin.getTime(), parent);
+    private Gesture makeTap(float x, float y, long time, Gesture old, Gesture parent, boolean phantom) {
+        Gesture touch = obtainGesture(old.getTag(), old.getId(), x, y, time, parent);
         touch.setDirection(Direction.TAP);
         touch.refine();
         touch.setPhantom(phantom);
@@ -189,9 +518,7 @@ abstract class TouchRefinery extends SwipeDetector {
         if (parent != null) {
             parent.adoptChildrenFrom(old);
         } else {
-            for (Gesture orphan : old.abandonChildren()) {
-                refined.add(orphan);
-            }
+            old.abandonChildren(refined);
         }
     }
 
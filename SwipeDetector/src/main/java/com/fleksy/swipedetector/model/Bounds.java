@@ -0,0 +1,73 @@
+package com.fleksy.swipedetector.model;
+
+/**
+ * A rectangle of floats, the platform neutral counterpart of Android's RectF used for the areas
+ * of the GestureEngine. Points on the edges are inside, as with Calculator.contains().
+ */
+public class Bounds {
+
+    public float left;
+    public float top;
+    public float right;
+    public float bottom;
+
+    public Bounds() {
+    }
+
+    public Bounds(float left, float top, float right, float bottom) {
+        set(left, top, right, bottom);
+    }
+
+    public final void set(float left, float top, float right, float bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    public final float width() {
+        return right - left;
+    }
+
+    public final float height() {
+        return bottom - top;
+    }
+
+    /**
+     * @return True if the rectangle holds no point at all
+     */
+    public final boolean isEmpty() {
+        return !(left <= right && top <= bottom);
+    }
+
+    public final boolean contains(float x, float y) {
+        return left <= x && top <= y && right >= x && bottom >= y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Bounds)) {
+            return false;
+        }
+        final Bounds other = (Bounds) o;
+        return left == other.left && top == other.top && right == other.right && bottom == other.bottom;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(left);
+        result = 31 * result + Float.floatToIntBits(top);
+        result = 31 * result + Float.floatToIntBits(right);
+        result = 31 * result + Float.floatToIntBits(bottom);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + left + "," + top + "][" + right + "," + bottom + "]";
+    }
+
+}
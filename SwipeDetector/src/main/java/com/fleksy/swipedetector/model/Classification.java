@@ -0,0 +1,8 @@
+package com.fleksy.swipedetector.model;
+
+/**
+ * What the detection pipeline made of a gesture, or what a recorded gesture is known to be.
+ */
+public enum Classification {
+    TAP, SWIPE, PHANTOM
+}
@@ -3,6 +3,8 @@ package com.fleksy.swipedetector.model;
 import com.fleksy.swipedetector.tool.Calculator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,31 +16,104 @@ public class Gesture {
     public final static int BODY = 1;
     public final static int TAIL = 3;
 
-    private final int ID;
-    private final ArrayList<FPoint> points;
-    private final ArrayList<Gesture> children;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int ID;
+    private float[] xs;
+    private float[] ys;
+    private long[] times;
+    private byte[] states;
+    private int size;
+    private int head = Integer.MAX_VALUE; // Points kept at the start when retaining
+    private int ring; // Recent points kept after the head when retaining
+    private int ringStart; // Offset of the oldest recent point in the ring
+    private int dropped; // Points dropped from the ring
+    private double pathLength;
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+    private double furthest; // Squared distance of the furthest point from the first one
+    private float furthestX;
+    private float furthestY;
+    private long furthestTime;
     private Gesture parent;
+    /* Children are linked through their siblings, so joining and leaving a parent is O(1) */
+    private Gesture listedIn; // Gesture whose children this one is linked into
+    private Gesture firstChild;
+    private Gesture lastChild;
+    private Gesture previousSibling;
+    private Gesture nextSibling;
+    private int childCount;
     private Object TAG;
     private boolean holding = false;
     private boolean refined = false;
     private boolean ignored = false;
     private boolean phantom = false;
     private boolean process = false;
+    private boolean recycled = false;
 
     private Direction direction = Direction.UNDEFINED;
+    private Direction prediction = Direction.UNDEFINED;
 
     public Gesture(Object TAG, int ID, float x, float y, long eventTime, Gesture parent) {
+        xs = new float[INITIAL_CAPACITY];
+        ys = new float[INITIAL_CAPACITY];
+        times = new long[INITIAL_CAPACITY];
+        states = new byte[INITIAL_CAPACITY];
+        init(TAG, ID, x, y, eventTime, parent);
+    }
+
+    /**
+     * Sets up a new or recycled gesture, keeping the point storage that was already allocated.
+     */
+    final void init(Object TAG, int ID, float x, float y, long eventTime, Gesture parent) {
         this.ID = ID;
         this.TAG = TAG;
         this.parent = parent;
-        points = new ArrayList<>();
-        children = new ArrayList<>();
-        addPoint(new FPoint(HEAD, x, y, eventTime));
+        size = 0;
+        head = Integer.MAX_VALUE;
+        ring = 0;
+        ringStart = 0;
+        dropped = 0;
+        holding = false;
+        refined = false;
+        ignored = false;
+        phantom = false;
+        process = false;
+        recycled = false;
+        direction = Direction.UNDEFINED;
+        prediction = Direction.UNDEFINED;
+        addPoint(HEAD, x, y, eventTime);
         if (parent != null) {
             parent.haveChild(this);
         }
     }
 
+    /**
+     * Drops every reference held by the gesture so it can wait in a GesturePool.
+     */
+    final void clear() {
+        TAG = null;
+        parent = null;
+        if (listedIn != null) {
+            listedIn.loseChild(this);
+        }
+        while (firstChild != null) {
+            loseChild(firstChild);
+        }
+        size = 0;
+        recycled = true;
+    }
+
+    final boolean recycled() {
+        return recycled;
+    }
+
+    final void setRecycled(boolean recycled) {
+        this.recycled = recycled;
+    }
+
     public final int getId() {
         return ID;
     }
@@ -63,21 +138,299 @@ public class Gesture {
         return holding;
     }
 
+    /**
+     * Builds a list of FPoints from the stored path. The path is no longer held as FPoints, so
+     * unlike before the list is a snapshot: it doesn't follow points added later, can't be
+     * modified, and editing its points leaves the gesture alone. It allocates a new object per
+     * point.
+     *
+     * @return A new unmodifiable list containing a copy of every point in the gesture
+     * @deprecated Use getPointCount() with getXAt(), getYAt(), getTimeAt() and getStateAt()
+     */
+    @Deprecated
     public final List<FPoint> getPoints() {
-        return points;
+        final List<FPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final int slot = slot(i);
+            points.add(new FPoint(states[slot], xs[slot], ys[slot], times[slot]));
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    public final int getPointCount() {
+        return size;
     }
 
     public final void addPoint(FPoint p) {
-        points.add(p);
+        addPoint(p.getState(), p.getX(), p.getY(), p.getTime());
+    }
+
+    /**
+     * Appends a point to the gesture's path without allocating an FPoint.
+     *
+     * @param state HEAD, BODY or TAIL
+     * @param x     Refined x coordinate
+     * @param y     Refined y coordinate
+     * @param time  Event time of the sample
+     */
+    public final void addPoint(int state, float x, float y, long time) {
+        track(x, y, time);
+        final int slot;
+        if (size == head + ring) {
+            slot = head + ringStart;        // Overwrites the oldest recent point
+            ringStart = (ringStart + 1 == ring) ? 0 : ringStart + 1;
+            dropped++;
+        } else {
+            ensureCapacity(size + 1);
+            slot = size++;
+        }
+        xs[slot] = x;
+        ys[slot] = y;
+        times[slot] = time;
+        states[slot] = (byte) state;
+    }
+
+    /**
+     * Appends a batch of samples of one pointer, such as those a move event holds, with a
+     * single capacity check. Offsets are added to every coordinate, as with refined points.
+     *
+     * @param state   HEAD, BODY or TAIL, given to every point
+     * @param x       Raw x coordinates
+     * @param y       Raw y coordinates
+     * @param time    Event times of the samples
+     * @param count   Number of samples to append from the start of the arrays
+     * @param offsetX Added to every x coordinate
+     * @param offsetY Added to every y coordinate
+     */
+    public final void addPoints(int state, float[] x, float[] y, long[] time, int count,
+                                float offsetX, float offsetY) {
+        if (isRetaining()) {                // Recent points may be overwritten one by one
+            for (int i = 0; i < count; i++) {
+                addPoint(state, x[i] + offsetX, y[i] + offsetY, time[i]);
+            }
+            return;
+        }
+        ensureCapacity(size + count);
+        final byte s = (byte) state;
+        for (int i = 0; i < count; i++) {
+            final float px = x[i] + offsetX;
+            final float py = y[i] + offsetY;
+            track(px, py, time[i]);
+            xs[size] = px;
+            ys[size] = py;
+            times[size] = time[i];
+            states[size] = s;
+            size++;
+        }
+    }
+
+    /**
+     * Updates the aggregates with a point that is being added.
+     */
+    private void track(float x, float y, long time) {
+        if (size == 0) {
+            pathLength = 0;
+            minX = maxX = x;
+            minY = maxY = y;
+            furthest = 0;
+            furthestX = x;
+            furthestY = y;
+            furthestTime = time;
+            return;
+        }
+        final int last = slot(size - 1);
+        pathLength += Calculator.calcLength(x - xs[last], y - ys[last]);
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        final double distance = Calculator.calcLengthSquared(x - xs[0], y - ys[0]);
+        /* The latest point until one moves away, as Calculator.findFurthestPoint() falls back to */
+        if (distance > furthest || furthest == 0) {
+            furthest = distance;
+            furthestX = x;
+            furthestY = y;
+            furthestTime = time;
+        }
+    }
+
+    /**
+     * Bounds the points kept by the gesture, typically for holds and drags that can last for
+     * any amount of time. The first headPoints are kept along with a ring of the most recent
+     * recentPoints, older points in between are dropped as new ones arrive. Indices then
+     * refer to the kept points only, while the path length, bounds and furthest point still
+     * cover every point ever added. Retention is lifted when the gesture is recycled.
+     *
+     * @param headPoints   Number of points kept from the start of the gesture
+     * @param recentPoints Number of most recent points kept
+     */
+    public final void setRetention(int headPoints, int recentPoints) {
+        if (headPoints < 1 || recentPoints < 1) {
+            throw new IllegalArgumentException("Retention needs at least one head and one recent point");
+        }
+        unwrap();
+        if (size > headPoints + recentPoints) {
+            final int from = size - recentPoints;
+            System.arraycopy(xs, from, xs, headPoints, recentPoints);
+            System.arraycopy(ys, from, ys, headPoints, recentPoints);
+            System.arraycopy(times, from, times, headPoints, recentPoints);
+            System.arraycopy(states, from, states, headPoints, recentPoints);
+            dropped += size - headPoints - recentPoints;
+            size = headPoints + recentPoints;
+        }
+        head = headPoints;
+        ring = recentPoints;
+    }
+
+    public final boolean isRetaining() {
+        return ring > 0;
+    }
+
+    /**
+     * @return Number of points that were dropped by the retention policy
+     */
+    public final int getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Puts the ring of recent points back in order, so that slots match indices again.
+     */
+    private void unwrap() {
+        if (ringStart == 0) {
+            return;
+        }
+        final float[] x = new float[xs.length];
+        final float[] y = new float[ys.length];
+        final long[] t = new long[times.length];
+        final byte[] st = new byte[states.length];
+        for (int i = 0; i < size; i++) {
+            final int slot = slot(i);
+            x[i] = xs[slot];
+            y[i] = ys[slot];
+            t[i] = times[slot];
+            st[i] = states[slot];
+        }
+        xs = x;
+        ys = y;
+        times = t;
+        states = st;
+        ringStart = 0;
+    }
+
+    /**
+     * Maps an index to where the point is stored, which only differs once the ring wrapped.
+     */
+    private int slot(int index) {
+        if (index < head || ringStart == 0) {
+            return index;
+        }
+        final int slot = index + ringStart;
+        return (slot < head + ring) ? slot : slot - ring;
+    }
+
+    /**
+     * Copies a reduced path into another gesture, keeping only the points that lie at least
+     * spacing away from the previous point kept. The first and last points are always kept and
+     * the spacing is widened when needed so that no more than maxPoints are copied. Kept points
+     * are copied as they were, nothing is interpolated.
+     *
+     * @param into      Gesture whose path is replaced, its children and parent are left alone
+     * @param spacing   Minimum distance between two kept points
+     * @param maxPoints Maximum number of points to keep, at least 3
+     * @return The provided gesture
+     */
+    public final Gesture decimate(Gesture into, float spacing, int maxPoints) {
+        maxPoints = Math.max(3, maxPoints);
+        if (size > maxPoints) {
+            double path = 0;
+            for (int i = 1; i < size; i++) {
+                path += Calculator.calcLength(getXAt(i) - getXAt(i - 1), getYAt(i) - getYAt(i - 1));
+            }
+            /* Every kept point but the first and last one covers at least spacing of the path */
+            spacing = (float) Math.max(spacing, path / (maxPoints - 2));
+        }
+        final double minimum = (double) spacing * spacing;
+        into.size = 0;
+        into.addPoint(states[0], xs[0], ys[0], times[0]);
+        float keptX = xs[0];
+        float keptY = ys[0];
+        for (int i = 1; i < size - 1 && into.size < maxPoints - 1; i++) {
+            final int slot = slot(i);
+            if (Calculator.calcLengthSquared(xs[slot] - keptX, ys[slot] - keptY) >= minimum) {
+                into.addPoint(states[slot], xs[slot], ys[slot], times[slot]);
+                keptX = xs[slot];
+                keptY = ys[slot];
+            }
+        }
+        if (size > 1) {
+            final int last = slot(size - 1);
+            into.addPoint(states[last], xs[last], ys[last], times[last]);
+        }
+        return into;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= xs.length) {
+            return;
+        }
+        final int grown = Math.min(Math.max(capacity, xs.length + (xs.length >> 1)),
+                Math.max(capacity, head + ring));      // Never past what retention keeps
+        xs = Arrays.copyOf(xs, grown);
+        ys = Arrays.copyOf(ys, grown);
+        times = Arrays.copyOf(times, grown);
+        states = Arrays.copyOf(states, grown);
+    }
+
+    /**
+     * Copies the coordinates of every point, in order, into the given arrays.
+     *
+     * @param x Array receiving the X coordinates, at least getPointCount() long
+     * @param y Array receiving the Y coordinates, at least getPointCount() long
+     * @return Number of points copied
+     */
+    public final int copyPath(float[] x, float[] y) {
+        if (ringStart == 0) {
+            System.arraycopy(xs, 0, x, 0, size);
+            System.arraycopy(ys, 0, y, 0, size);
+        } else {
+            for (int i = 0; i < size; i++) {
+                final int slot = slot(i);
+                x[i] = xs[slot];
+                y[i] = ys[slot];
+            }
+        }
+        return size;
     }
 
     public final boolean pointExists(int index) {
-        return index < points.size() && index >= 0;
+        return index < size && index >= 0;
+    }
+
+    public final float getXAt(int index) {
+        return xs[slot(index)];
+    }
+
+    public final float getYAt(int index) {
+        return ys[slot(index)];
+    }
+
+    public final long getTimeAt(int index) {
+        return times[slot(index)];
+    }
+
+    public final int getStateAt(int index) {
+        return states[slot(index)];
+    }
+
+    public final void setStateAt(int index, int state) {
+        states[slot(index)] = (byte) state;
     }
 
     public final FPoint getPointAt(int index) {
         if (pointExists(index)) {
-            return points.get(index);
+            final int slot = slot(index);
+            return new FPoint(states[slot], xs[slot], ys[slot], times[slot]);
         }
         return null;
     }
@@ -87,42 +440,49 @@ public class Gesture {
     }
 
     public final FPoint getLastPoint() {
-        return getPointAt(points.size() - 1);
+        return getPointAt(size - 1);
     }
 
+    /**
+     * Replaces a point. The path length, bounds and furthest point are left as they were.
+     */
     public final void editPoint(int index, FPoint p) {
         if (pointExists(index)) {
-            points.set(index, p);
+            final int slot = slot(index);
+            xs[slot] = p.getX();
+            ys[slot] = p.getY();
+            times[slot] = p.getTime();
+            states[slot] = (byte) p.getState();
         }
     }
 
-    private long getPointTime(FPoint point) {
-        if (point != null) {
-            return point.getTime();
+    private long getPointTime(int index) {
+        if (pointExists(index)) {
+            return times[slot(index)];
         }
         return -1;
     }
 
-    private float getPointX(FPoint point) {
-        if (point != null) {
-            return point.getX();
+    private float getPointX(int index) {
+        if (pointExists(index)) {
+            return xs[slot(index)];
         }
         return -1;
     }
 
-    private float getPointY(FPoint point) {
-        if (point != null) {
-            return point.getY();
+    private float getPointY(int index) {
+        if (pointExists(index)) {
+            return ys[slot(index)];
         }
         return -1;
     }
 
     public final long getPressTime() {
-        return getPointTime(getFirstPoint());
+        return getPointTime(0);
     }
 
     public final long getReleaseTime() {
-        return getPointTime(getLastPoint());
+        return getPointTime(size - 1);
     }
 
     public final long getTimeTaken() {
@@ -130,19 +490,58 @@ public class Gesture {
     }
 
     public final float getDownX() {
-        return getPointX(getFirstPoint());
+        return getPointX(0);
     }
 
     public final float getDownY() {
-        return getPointY(getFirstPoint());
+        return getPointY(0);
     }
 
     public final float getUpX() {
-        return getPointX(getLastPoint());
+        return getPointX(size - 1);
     }
 
     public final float getUpY() {
-        return getPointY(getLastPoint());
+        return getPointY(size - 1);
+    }
+
+    /**
+     * @return Length of the path through every point added, dropped ones included
+     */
+    public final double getPathLength() {
+        return pathLength;
+    }
+
+    public final float getMinX() {
+        return minX;
+    }
+
+    public final float getMinY() {
+        return minY;
+    }
+
+    public final float getMaxX() {
+        return maxX;
+    }
+
+    public final float getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * @return X coordinate of the point added furthest from the first one, or of the last point
+     * added while none moved away from the first
+     */
+    public final float getFurthestX() {
+        return furthestX;
+    }
+
+    public final float getFurthestY() {
+        return furthestY;
+    }
+
+    public final long getFurthestTime() {
+        return furthestTime;
     }
 
     public final float getDeltaX() {
@@ -154,7 +553,7 @@ public class Gesture {
     }
 
     public final double getLength() {
-        return Calculator.calcPointLength(getFirstPoint(), getLastPoint());
+        return Calculator.calcLength(getDeltaX(), getDeltaY());
     }
 
     public final double getRadian() {
@@ -189,12 +588,24 @@ public class Gesture {
         this.direction = direction;
     }
 
+    /**
+     * @return The direction the swipe was predicted to take while it was being drawn and that
+     * wasn't confirmed nor retracted yet, UNDEFINED otherwise
+     */
+    public final Direction getPrediction() {
+        return prediction;
+    }
+
+    public final void setPrediction(Direction prediction) {
+        this.prediction = prediction;
+    }
+
     public final Gesture getRoot() {
-        if (parent == null) {
-            return this;
-        } else {
-            return parent.getRoot();
+        Gesture root = this;
+        while (root.parent != null) {
+            root = root.parent;
         }
+        return root;
     }
 
     public final Gesture leaveParent() {
@@ -219,22 +630,52 @@ public class Gesture {
     }
 
     public final boolean canLiberate(final int target) {
-        return children.size() >= target;
+        return childCount >= target;
     }
 
     public final Gesture getLiberator() {
         if (!hasChildren()) {
             return this;
         }
-        return children.get(children.size() - 1);
+        return lastChild;
     }
 
+    /**
+     * Links the child after the other children, taking it from any gesture it was linked to.
+     */
     public final void haveChild(Gesture child) {
-        children.add(child);
+        if (child.listedIn != null) {
+            child.listedIn.loseChild(child);
+        }
+        child.listedIn = this;
+        child.previousSibling = lastChild;
+        if (lastChild == null) {
+            firstChild = child;
+        } else {
+            lastChild.nextSibling = child;
+        }
+        lastChild = child;
+        childCount++;
     }
 
     private void loseChild(Gesture child) {
-        children.remove(child);
+        if (child.listedIn != this) {
+            return;
+        }
+        if (child.previousSibling == null) {
+            firstChild = child.nextSibling;
+        } else {
+            child.previousSibling.nextSibling = child.nextSibling;
+        }
+        if (child.nextSibling == null) {
+            lastChild = child.previousSibling;
+        } else {
+            child.nextSibling.previousSibling = child.previousSibling;
+        }
+        child.listedIn = null;
+        child.previousSibling = null;
+        child.nextSibling = null;
+        childCount--;
     }
 
     public final void setIgnore(final boolean ignore) {
@@ -266,38 +707,70 @@ public class Gesture {
     }
 
     public final boolean hasChildren() {
-        return children.size() > 0;
+        return childCount > 0;
     }
 
     public final int getChildCount() {
-        return children.size();
+        return childCount;
+    }
+
+    /**
+     * Children are linked to each other rather than held in a list, so unlike before the list is
+     * a snapshot that doesn't follow children had or lost later and can't be modified. Use
+     * haveChild(), abandonChildren() and adoptChildrenFrom() to change the children.
+     *
+     * @return A new unmodifiable list of the children, in the order they were had
+     * @deprecated Use getChildCount(), getFirstChild() and getNextSibling()
+     */
+    @Deprecated
+    public final List<Gesture> getChildren() {
+        final List<Gesture> children = new ArrayList<>(childCount);
+        for (Gesture child = firstChild; child != null; child = child.nextSibling) {
+            children.add(child);
+        }
+        return Collections.unmodifiableList(children);
     }
 
-    public final List<Gesture> getChildren() {
-        return children;
+    public final Gesture getFirstChild() {
+        return firstChild;
+    }
+
+    /**
+     * @return The child had after this one by the same parent, null for the last one
+     */
+    public final Gesture getNextSibling() {
+        return nextSibling;
     }
 
     public final List<Gesture> abandonChildren() {
-        if (children.isEmpty()) {
-            return children;
+        if (childCount == 0) {
+            return Collections.emptyList();
         }
-        List<Gesture> abandoned = new ArrayList<Gesture>();
-        for (int i = 0; i < children.size(); i++) {
-            final Gesture child = children.get(i);
+        return abandonChildren(new ArrayList<Gesture>(childCount));
+    }
+
+    /**
+     * Abandons every child, adding them to the provided list instead of a new one.
+     *
+     * @param abandoned List the orphans will be added to
+     * @return The provided list
+     */
+    public final List<Gesture> abandonChildren(List<Gesture> abandoned) {
+        while (firstChild != null) {
+            final Gesture child = firstChild;
             child.parent = null;
+            loseChild(child);
             abandoned.add(child);
         }
-        children.clear();
         return abandoned;
     }
 
     public final void adoptChildrenFrom(Gesture old) {
-        for (int i = 0; i < old.getChildCount(); i++) {
-            final Gesture child = old.children.get(i);
+        while (old.firstChild != null) {
+            final Gesture child = old.firstChild;
             child.parent = this;
             haveChild(child);
         }
-        old.children.clear();
     }
 
 }
@@ -0,0 +1,100 @@
+package com.fleksy.swipedetector.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps released gestures and result lists around so they can be reused by the next touch.
+ * Gestures are first released, which only marks them as pending, and are handed back to the
+ * pool once flush() is called at a point where nothing can still be reading them. Every
+ * method is synchronized, as a refinery running off the input thread shares the pool.
+ */
+public final class GesturePool {
+
+    private final int capacity;
+    private final ArrayList<Gesture> pending;
+    private final ArrayList<Gesture> gestures;
+    private final ArrayList<PooledList> lists;
+
+    public GesturePool(int capacity) {
+        this.capacity = capacity;
+        pending = new ArrayList<>(capacity);
+        gestures = new ArrayList<>(capacity);
+        lists = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Returns a recycled gesture set up with the given values, or a new one if the pool is empty.
+     */
+    public synchronized Gesture obtain(Object TAG, int ID, float x, float y, long eventTime, Gesture parent) {
+        if (gestures.isEmpty()) {
+            return new Gesture(TAG, ID, x, y, eventTime, parent);
+        }
+        final Gesture gesture = gestures.remove(gestures.size() - 1);
+        gesture.init(TAG, ID, x, y, eventTime, parent);
+        return gesture;
+    }
+
+    /**
+     * Marks a gesture as no longer needed. It will be reused after the next flush().
+     * Releasing the same gesture more than once has no effect.
+     *
+     * @param gesture Gesture that will no longer be read by anyone
+     */
+    public synchronized void release(Gesture gesture) {
+        if (gesture == null || gesture.recycled()) {
+            return;
+        }
+        gesture.setRecycled(true);
+        if (pending.size() < capacity) {
+            pending.add(gesture);
+        }
+    }
+
+    /**
+     * Moves every released gesture back into the pool.
+     */
+    public synchronized void flush() {
+        for (int i = 0; i < pending.size(); i++) {
+            final Gesture gesture = pending.get(i);
+            gesture.clear();
+            if (gestures.size() < capacity) {
+                gestures.add(gesture);
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Returns an empty list owned by the pool, to be handed back through recycleList().
+     */
+    public synchronized List<Gesture> obtainList() {
+        if (lists.isEmpty()) {
+            return new PooledList();
+        }
+        return lists.remove(lists.size() - 1);
+    }
+
+    /**
+     * Clears and keeps a list returned by obtainList(). Lists that didn't come from a
+     * pool are ignored.
+     *
+     * @param list List that is no longer being read
+     */
+    public synchronized void recycleList(List<Gesture> list) {
+        if (!(list instanceof PooledList)) {
+            return;
+        }
+        list.clear();
+        if (lists.size() < capacity) {
+            lists.add((PooledList) list);
+        }
+    }
+
+    private static final class PooledList extends ArrayList<Gesture> {
+
+        private static final long serialVersionUID = 1L;
+
+    }
+
+}
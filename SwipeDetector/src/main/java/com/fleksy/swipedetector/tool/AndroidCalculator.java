@@ -0,0 +1,39 @@
+package com.fleksy.swipedetector.tool;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * The Calculator methods taking Android types, kept apart so Calculator itself builds on a plain
+ * JVM. Points on the edges are inside, as with Calculator.contains().
+ */
+public final class AndroidCalculator {
+
+    private AndroidCalculator() {
+    }
+
+    public static boolean contains(final int x, final int y, final Rect... bounds) {
+        if (bounds == null) {
+            return false;
+        }
+        for (final Rect area : bounds) {
+            if (area.left <= x && area.top <= y && area.right >= x && area.bottom >= y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean contains(final float x, final float y, final RectF... bounds) {
+        if (bounds == null) {
+            return false;
+        }
+        for (final RectF area : bounds) {
+            if (area.left <= x && area.top <= y && area.right >= x && area.bottom >= y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
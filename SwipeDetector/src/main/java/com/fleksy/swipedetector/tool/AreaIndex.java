@@ -0,0 +1,181 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Bounds;
+
+import java.util.List;
+
+/**
+ * Uniform grid over a set of areas, so finding the areas holding a point only tests the few
+ * areas overlapping the point's cell. Areas match the same way as in Calculator.contains(),
+ * edges included, and are always returned in the order of the array the index was built from.
+ * The index is only rebuilt when given another array or after invalidate(), queries don't
+ * allocate.
+ */
+public final class AreaIndex {
+
+    private static final int MAX_CELLS = 4096;
+
+    private Bounds[] areas;
+    private boolean valid;
+    private float left;
+    private float top;
+    private float columnScale;
+    private float rowScale;
+    private int columns;
+    private int rows;
+    private int[] cellStarts = new int[1]; // Where each cell's areas start in cellAreas
+    private int[] cellAreas = new int[0]; // Indices of the areas in each cell, in array order
+
+    /**
+     * Makes the next update() rebuild the index, for when the areas were changed in place.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Rebuilds the index if the areas aren't the ones it was built from.
+     *
+     * @param areas Areas to index, the array and its rectangles are kept and must not change
+     *              without calling invalidate()
+     * @return This index
+     */
+    public AreaIndex update(Bounds[] areas) {
+        if (!valid || areas != this.areas) {
+            build(areas);
+        }
+        return this;
+    }
+
+    private void build(Bounds[] areas) {
+        this.areas = areas;
+        valid = true;
+        columns = 0;
+        rows = 0;
+        float right = Float.NEGATIVE_INFINITY;
+        float bottom = Float.NEGATIVE_INFINITY;
+        float width = 0;
+        float height = 0;
+        int count = 0;
+        left = Float.POSITIVE_INFINITY;
+        top = Float.POSITIVE_INFINITY;
+        for (int i = 0; areas != null && i < areas.length; i++) {
+            final Bounds area = areas[i];
+            if (area.isEmpty()) {
+                continue;
+            }
+            left = Math.min(left, area.left);
+            top = Math.min(top, area.top);
+            right = Math.max(right, area.right);
+            bottom = Math.max(bottom, area.bottom);
+            width += area.right - area.left;
+            height += area.bottom - area.top;
+            count++;
+        }
+        if (count == 0) {
+            return;
+        }
+        /* Cells about the size of an average area */
+        columns = cellCount(right - left, width / count);
+        rows = cellCount(bottom - top, height / count);
+        while (columns * rows > MAX_CELLS) {
+            columns = Math.max(1, columns / 2);
+            rows = Math.max(1, rows / 2);
+        }
+        columnScale = (right > left) ? columns / (right - left) : 0;
+        rowScale = (bottom > top) ? rows / (bottom - top) : 0;
+
+        cellStarts = new int[columns * rows + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < areas.length; i++) {
+                final Bounds area = areas[i];
+                if (area.isEmpty()) {
+                    continue;
+                }
+                final int lastColumn = column(area.right);
+                final int lastRow = row(area.bottom);
+                for (int r = row(area.top); r <= lastRow; r++) {
+                    for (int c = column(area.left); c <= lastColumn; c++) {
+                        final int cell = r * columns + c;
+                        if (pass == 0) {
+                            cellStarts[cell + 1]++;
+                        } else {
+                            cellAreas[cellStarts[cell]++] = i;
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int cell = 0; cell < columns * rows; cell++) {
+                    cellStarts[cell + 1] += cellStarts[cell];
+                }
+                cellAreas = new int[cellStarts[columns * rows]];
+            } else {
+                /* Filling moved every start to the next cell's start */
+                System.arraycopy(cellStarts, 0, cellStarts, 1, columns * rows);
+                cellStarts[0] = 0;
+            }
+        }
+    }
+
+    private static int cellCount(float span, float average) {
+        final double cells = Math.ceil(span / average);
+        return (cells >= 1) ? (int) Math.min(MAX_CELLS, cells) : 1;
+    }
+
+    private int column(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((x - left) * columnScale)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - top) * rowScale)));
+    }
+
+    private int cell(float x, float y) {
+        if (columns == 0 || !(x >= left && y >= top)) {
+            return -1;
+        }
+        return row(y) * columns + column(x);
+    }
+
+    private boolean contains(int index, float x, float y) {
+        return areas[index].contains(x, y);
+    }
+
+    /**
+     * @return Index of the first area holding the point, -1 if there is none
+     */
+    public int find(float x, float y) {
+        final int cell = cell(x, y);
+        if (cell < 0) {
+            return -1;
+        }
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            if (contains(cellAreas[i], x, y)) {
+                return cellAreas[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds every area holding the point to the list.
+     *
+     * @return Number of areas added
+     */
+    public int findAll(float x, float y, List<Bounds> out) {
+        final int cell = cell(x, y);
+        if (cell < 0) {
+            return 0;
+        }
+        int found = 0;
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            if (contains(cellAreas[i], x, y)) {
+                out.add(areas[cellAreas[i]]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.fleksy.swipedetector.tool;
 
-import android.graphics.Rect;
-import android.graphics.RectF;
-
+import com.fleksy.swipedetector.model.Bounds;
 import com.fleksy.swipedetector.model.Direction;
 import com.fleksy.swipedetector.model.FPoint;
+import com.fleksy.swipedetector.model.Gesture;
 
 import java.util.List;
 
@@ -13,6 +12,20 @@ import java.util.List;
  */
 public final class Calculator {
 
+    private static final double PI = Math.PI;
+    private static final double HALF_PI = Math.PI / 2;
+    private static final double TWO_PI = Math.PI * 2;
+
+    /* Abramowitz & Stegun 4.4.49, atan(x) for 0 <= x <= 1 with an error below 2e-8 */
+    private static final double ATAN_2 = -0.3333314528;
+    private static final double ATAN_4 = 0.1999355085;
+    private static final double ATAN_6 = -0.1420889944;
+    private static final double ATAN_8 = 0.1065626393;
+    private static final double ATAN_10 = -0.0752896400;
+    private static final double ATAN_12 = 0.0429096138;
+    private static final double ATAN_14 = -0.0161657367;
+    private static final double ATAN_16 = 0.0028662257;
+
     public static float calcStandardDeviation(List<Double> numbers) {
 
         double average;
@@ -33,6 +46,23 @@ public final class Calculator {
         return (float) Math.sqrt(sum / (numbers.size() - ignore));
     }
 
+    /**
+     * Single pass standard deviation from running totals.
+     *
+     * @param count   Number of values
+     * @param sum     Sum of all values
+     * @param squares Sum of all squared values
+     * @return The population standard deviation of the values
+     */
+    public static float calcStandardDeviation(int count, double sum, double squares) {
+        if (count <= 0) {
+            return 0;
+        }
+        final double average = calcAverage(sum, count);
+        final double variance = calcAverage(squares, count) - (average * average);
+        return (float) Math.sqrt(Math.max(0, variance));
+    }
+
     /*
      * 		-B +- sqrt(B^2 - 4AC)
      * X =  ---------------------
@@ -83,6 +113,11 @@ public final class Calculator {
         return (deltaRadians(d)); //change in angle refactored to radians
     }
 
+    public static double getDeltaRad(double c, double p, boolean fast) {
+        double d = calcDeltaD(c, p); //change in angle from previous
+        return (deltaRadians(d, fast)); //change in angle refactored to radians
+    }
+
     public static double calcAverage(double total, int count) {
         return (total / count);
     }
@@ -100,17 +135,69 @@ public final class Calculator {
     }
 
     public static double calcLength(float deltaX, float deltaY) {
-        return (Math.sqrt(((Math.pow(deltaX, 2)) + (Math.pow(deltaY, 2)))));
+        return (Math.sqrt(calcLengthSquared(deltaX, deltaY)));
+    }
+
+    /**
+     * Squared length, for comparisons where only the ordering of lengths matters.
+     */
+    public static double calcLengthSquared(float deltaX, float deltaY) {
+        final double x = deltaX;
+        final double y = deltaY;
+        return (x * x) + (y * y);
     }
 
     public static double findRads(float x, float y) {
         return ((Math.atan2(y, x)));
     }
 
+    public static double findRads(float x, float y, boolean fast) {
+        return fast ? fastAtan2(y, x) : findRads(x, y);
+    }
+
     public static double deltaRadians(double r) {
         return (Math.abs(Math.atan2((Math.sin(r)), (Math.cos(r)))));
     }
 
+    /**
+     * Absolute angle once wrapped into [-PI, PI]. The fast version only wraps angles within
+     * [-3PI, 3PI], which covers the difference of any two results of findRads().
+     */
+    public static double deltaRadians(double r, boolean fast) {
+        if (!fast) {
+            return deltaRadians(r);
+        }
+        if (r > PI) {
+            r -= TWO_PI;
+        } else if (r < -PI) {
+            r += TWO_PI;
+        }
+        return Math.abs(r);
+    }
+
+    /**
+     * Polynomial approximation of Math.atan2 with an absolute error below 1e-7 radians.
+     */
+    public static double fastAtan2(double y, double x) {
+        final double absX = Math.abs(x);
+        final double absY = Math.abs(y);
+        if (absX == 0 && absY == 0) {
+            return Math.atan2(y, x); // Keeps the signed zero results
+        }
+        final boolean steep = absY > absX;
+        final double t = steep ? absX / absY : absY / absX;
+        final double t2 = t * t;
+        double atan = t * (1 + t2 * (ATAN_2 + t2 * (ATAN_4 + t2 * (ATAN_6 + t2 * (ATAN_8
+                + t2 * (ATAN_10 + t2 * (ATAN_12 + t2 * (ATAN_14 + t2 * ATAN_16))))))));
+        if (steep) {
+            atan = HALF_PI - atan;
+        }
+        if (x < 0) {
+            atan = PI - atan;
+        }
+        return Math.copySign(atan, y);
+    }
+
     public static float getDeltaVelocity(List<Double> nums, float ghostSpeedRatio) {
         float d = 0;
         /* Creates imaginary speed for first number and removes it from the list */
@@ -119,24 +206,13 @@ public final class Calculator {
         return d;
     }
 
-    public static boolean contains(final int x, final int y, final Rect... bounds) {
-        if (bounds == null) {
-            return false;
-        }
-        for (final Rect area : bounds) {
-            if (area.left <= x && area.top <= y && area.right >= x && area.bottom >= y) {
-                return true;
-            }
-        }
-        return false;
-    }
 
-    public static boolean contains(final float x, final float y, final RectF... bounds) {
+    public static boolean contains(final float x, final float y, final Bounds... bounds) {
         if (bounds == null) {
             return false;
         }
-        for (final RectF area : bounds) {
-            if (area.left <= x && area.top <= y && area.right >= x && area.bottom >= y) {
+        for (final Bounds area : bounds) {
+            if (area.contains(x, y)) {
                 return true;
             }
         }
@@ -172,4 +248,40 @@ public final class Calculator {
         return end;
     }
 
+    /**
+     * Finds the point furthest from the gesture's first point by scanning its primitive path.
+     *
+     * @param touch Gesture whose path is scanned
+     * @return Index of the furthest point, or the last index if no point is further than zero
+     */
+    public static int findFurthestPoint(final Gesture touch) {
+        return findFurthestPoint(touch, false);
+    }
+
+    /**
+     * Finds the point furthest from the gesture's first point, comparing squared lengths
+     * when fast is set.
+     *
+     * @param touch Gesture whose path is scanned
+     * @param fast  True to skip the square roots
+     * @return Index of the furthest point, or the last index if no point is further than zero
+     */
+    public static int findFurthestPoint(final Gesture touch, final boolean fast) {
+        final int count = touch.getPointCount();
+        final float startX = touch.getXAt(0);
+        final float startY = touch.getYAt(0);
+        int end = count - 1;
+        double max = 0;
+        for (int i = 0; i < count; i++) { // Find furthest point from Start
+            final float dX = Calculator.calcDeltaF(touch.getXAt(i), startX);
+            final float dY = Calculator.calcDeltaF(touch.getYAt(i), startY);
+            final double ln = fast ? Calculator.calcLengthSquared(dX, dY) : Calculator.calcLength(dX, dY);
+            if (ln > max) {
+                max = ln;
+                end = i;
+            }
+        }
+        return end;
+    }
+
 }
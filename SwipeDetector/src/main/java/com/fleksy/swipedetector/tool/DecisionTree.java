@@ -0,0 +1,116 @@
+package com.fleksy.swipedetector.tool;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A binary decision tree over GestureFeatures. Nodes are stored in parallel arrays, every node
+ * compares one feature against its threshold and picks one of its two children by the result
+ * of the comparison, used as an index rather than branched on. Children always come after their
+ * parent, so evaluation ends within as many steps as there are nodes.
+ */
+public final class DecisionTree extends TrainedClassifier {
+
+    static final byte[] MAGIC = {'S', 'W', 'D', 'T'};
+    static final int VERSION = 1;
+
+    private final int[] features;
+    private final float[] thresholds;
+    private final int[] children;
+    private final float[] leaves;
+
+    /**
+     * @param features   Feature each node compares, one of the GestureFeatures constants
+     * @param thresholds Value each node compares its feature against
+     * @param children   Two per node, the child taken while the feature is at most the threshold
+     *                   followed by the one taken above it. A child is either the index of a
+     *                   later node, or the complement (~index) of a leaf.
+     * @param leaves     Score of every leaf, at least 0 for phantom swipes
+     * @throws IllegalArgumentException If the arrays don't describe such a tree
+     */
+    public DecisionTree(int[] features, float[] thresholds, int[] children, float[] leaves) {
+        final int nodes = features.length;
+        if (nodes == 0 || thresholds.length != nodes || children.length != nodes * 2 || leaves.length == 0) {
+            throw new IllegalArgumentException("Mismatched decision tree arrays");
+        }
+        for (int i = 0; i < nodes; i++) {
+            if (features[i] < 0 || features[i] >= GestureFeatures.FEATURES) {
+                throw new IllegalArgumentException("Unknown feature " + features[i] + " at node " + i);
+            }
+        }
+        for (int i = 0; i < children.length; i++) {
+            final int child = children[i];
+            if (child >= 0 ? child <= i / 2 || child >= nodes : ~child >= leaves.length) {
+                throw new IllegalArgumentException("Invalid child " + child + " of node " + i / 2);
+            }
+        }
+        this.features = features.clone();
+        this.thresholds = thresholds.clone();
+        this.children = children.clone();
+        this.leaves = leaves.clone();
+    }
+
+    @Override
+    public float score(float[] vector) {
+        int node = 0;
+        do {
+            node = children[(node << 1) + (vector[features[node]] > thresholds[node] ? 1 : 0)];
+        } while (node >= 0);
+        return leaves[~node];
+    }
+
+    public int getNodeCount() {
+        return features.length;
+    }
+
+    public int getLeafCount() {
+        return leaves.length;
+    }
+
+    /**
+     * Reads a tree written by write().
+     *
+     * @throws IOException If the stream doesn't hold a valid tree
+     */
+    public static DecisionTree read(InputStream input) throws IOException {
+        final DataInputStream in = new DataInputStream(input);
+        readHeader(in, MAGIC, VERSION);
+        final int nodes = readCount(in);
+        final int[] features = new int[nodes];
+        final float[] thresholds = new float[nodes];
+        final int[] children = new int[nodes * 2];
+        for (int i = 0; i < nodes; i++) {
+            features[i] = in.readByte();
+            thresholds[i] = in.readFloat();
+            children[i * 2] = in.readInt();
+            children[i * 2 + 1] = in.readInt();
+        }
+        final float[] leaves = readFloats(in, readCount(in));
+        try {
+            return new DecisionTree(features, thresholds, children, leaves);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed decision tree", e);
+        }
+    }
+
+    public void write(OutputStream output) throws IOException {
+        final DataOutputStream out = new DataOutputStream(output);
+        writeHeader(out, MAGIC, VERSION);
+        out.writeInt(features.length);
+        for (int i = 0; i < features.length; i++) {
+            out.writeByte(features[i]);
+            out.writeFloat(thresholds[i]);
+            out.writeInt(children[i * 2]);
+            out.writeInt(children[i * 2 + 1]);
+        }
+        out.writeInt(leaves.length);
+        for (float leaf : leaves) {
+            out.writeFloat(leaf);
+        }
+        out.flush();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+/**
+ * Describes a gesture by a fixed vector of features for trained models to evaluate. Lengths are
+ * divided by the height of the touch area, as the thresholds of the rules are, so a model
+ * carries over between screens of the same shape. The vector is reused between gestures, so
+ * an instance must only be used by one thread at a time.
+ */
+public final class GestureFeatures {
+
+    public static final int POINTS = 0;                // Number of points
+    public static final int DURATION = 1;              // Milliseconds from first to last point
+    public static final int PATH_LENGTH = 2;           // Sum of the segment lengths
+    public static final int SPAN = 3;                  // Distance between the first and last points
+    public static final int STRAIGHTNESS = 4;          // Span over path length
+    public static final int MEAN_LENGTH = 5;           // Mean segment length
+    public static final int LENGTH_DEVIATION = 6;      // Standard deviation of the segment lengths over their mean
+    public static final int MAX_LENGTH_RATIO = 7;      // Longest segment over the mean
+    public static final int END_LENGTH_RATIO = 8;      // Last two segments over the mean
+    public static final int TOTAL_TURN = 9;            // Sum of the changes in angle, in radians
+    public static final int MEAN_TURN = 10;            // Mean change in angle between segments
+    public static final int STRAIGHT_RUNS = 11;        // Share of segments without any change in angle
+    public static final int VERTICAL = 12;             // 1 if heading up or down, 0 otherwise
+    public static final int SPEED = 13;                // Path length per millisecond
+    public static final int FEATURES = 14;
+
+    private static final String[] NAMES = {
+            "points", "duration", "path length", "span", "straightness", "mean length",
+            "length deviation", "max length ratio", "end length ratio", "total turn", "mean turn",
+            "straight runs", "vertical", "speed"
+    };
+
+    private final SegmentFeatures segments = new SegmentFeatures();
+    private final float[] values = new float[FEATURES];
+
+    /**
+     * Extracts the features of a gesture.
+     *
+     * @param height Height of the touch area, lengths are given as fractions of it
+     * @return The feature vector, indexed by the constants above and overwritten by the next call
+     */
+    public float[] extract(Gesture gesture, float height) {
+        final SegmentFeatures path = segments.extract(gesture);
+        final int n = path.getSegmentCount();
+        final float[] dX = path.getDeltaXs();
+        final float[] dY = path.getDeltaYs();
+        final float[] ln = path.getLengths();
+        final double mean = path.getMeanLength();
+
+        double turn = 0;
+        int turns = 0;
+        int straight = 0;
+        double previous = 0;
+        boolean headed = false;
+        for (int i = 0; i < n; i++) {
+            if (ln[i] == 0) {
+                continue;                                   // Held points have no heading
+            }
+            final double rad = Calculator.findRads(dX[i], -dY[i], true);
+            if (headed) {
+                final double delta = Calculator.getDeltaRad(rad, previous, true);
+                turn += delta;
+                turns++;
+                straight += delta == 0 ? 1 : 0;
+            }
+            previous = rad;
+            headed = true;
+        }
+
+        final long duration = gesture.getTimeTaken();
+        final double radian = gesture.getRadian();
+        values[POINTS] = gesture.getPointCount();
+        values[DURATION] = duration;
+        values[PATH_LENGTH] = (float) (path.getPathLength() / height);
+        values[SPAN] = (float) (path.getStraightness() * path.getPathLength() / height);
+        values[STRAIGHTNESS] = (float) path.getStraightness();
+        values[MEAN_LENGTH] = (float) (mean / height);
+        values[LENGTH_DEVIATION] = mean > 0 ? (float) (path.getStandardDeviation() / mean) : 0;
+        values[MAX_LENGTH_RATIO] = mean > 0 ? (float) (path.getMaxLength() / mean) : 0;
+        values[END_LENGTH_RATIO] = mean > 0 && n > 1 ? (float) ((ln[n - 1] + ln[n - 2]) / mean) : 0;
+        values[TOTAL_TURN] = (float) turn;
+        values[MEAN_TURN] = turns > 0 ? (float) (turn / turns) : 0;
+        values[STRAIGHT_RUNS] = turns > 0 ? (float) straight / turns : 0;
+        values[VERTICAL] = (radian > 4.3f && radian < 5.1f) || (radian > 0.8f && radian < 2.4f) ? 1 : 0;
+        values[SPEED] = duration > 0 ? (float) (path.getPathLength() / height / duration) : 0;
+        return values;
+    }
+
+    public static String getName(int feature) {
+        return NAMES[feature];
+    }
+
+}
@@ -0,0 +1,482 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded source of synthetic touches for load and accuracy testing without a device. Every
+ * episode is one of the kinds below, drawn at the configured rates:
+ * <ul>
+ * <li>TAP: a finger resting for a moment, drifting a pixel or two.</li>
+ * <li>SWIPE: a minimum jerk stroke in roughly one of the four directions, slightly bowed,
+ * with smooth sensor noise on top.</li>
+ * <li>HOLD: a tap lasting well past the usual hold delays.</li>
+ * <li>CHORD: several fingers going down within a few milliseconds of each other, all
+ * tapping or all swiping the same way.</li>
+ * <li>GHOST: the traces SwipeDetector penalises, perfectly straight runs of equal steps on
+ * whole pixels, a jump across the view and a ragged ending.</li>
+ * </ul>
+ * Every finger of an episode is sampled on one shared clock at the sample rate, with jitter on
+ * the sample times. The episodes can be taken as Gestures with next(), each finger on its own
+ * and labelled by getLabel(), or written as a replayable event stream with write(), where the
+ * samples are batched into move events at the frame rate as Android batches them.
+ * <p>
+ * The same seed and settings always produce the same touches. A generator is not thread safe.
+ */
+public final class GestureGenerator {
+
+    public static final int TAP = 0;
+    public static final int SWIPE = 1;
+    public static final int HOLD = 2;
+    public static final int CHORD = 3;
+    public static final int GHOST = 4;
+    public static final int KINDS = 5;
+
+    public static final int MAX_POINTERS = 10;
+    public static final int MAX_SAMPLE_RATE = 480;
+
+    private static final float[] DEFAULT_RATES = {60, 25, 5, 5, 5};
+    private static final float NOISE_DECAY = 0.8f;      // Sensor noise is smooth, not white
+    private static final int CHORD_SPREAD = 30;         // Milliseconds between the first and last finger
+
+    private final Random random;
+    private final float width;
+    private final float height;
+    private final float[] rates = DEFAULT_RATES.clone();
+
+    private int sampleRate = 120;
+    private int frameRate = 60;
+    private int maxPointers = 4;
+    private float noise = 0.6f;
+    private float jitter = 0.3f;
+    private long pause = 250;
+
+    private long time;
+    private int kind = -1;
+    private long[] clock = new long[256];               // Sample times of the current episode
+    private Stroke[] strokes = new Stroke[MAX_POINTERS];
+    private int strokeCount;
+    private int nextStroke;
+    private Classification label;
+
+    /**
+     * @param seed   Seed of every random choice
+     * @param width  Width of the touch area in pixels
+     * @param height Height of the touch area in pixels
+     */
+    public GestureGenerator(long seed, float width, float height) {
+        random = new Random(seed);
+        this.width = width;
+        this.height = height;
+        for (int i = 0; i < MAX_POINTERS; i++) {
+            strokes[i] = new Stroke();
+        }
+    }
+
+    /**
+     * @param kind TAP, SWIPE, HOLD, CHORD or GHOST
+     * @param rate How often the kind is drawn relative to the others, 0 to never draw it
+     * @return This generator
+     */
+    public GestureGenerator setRate(int kind, float rate) {
+        if (kind < 0 || kind >= KINDS || !(rate >= 0)) {
+            throw new IllegalArgumentException("Invalid rate " + rate + " of kind " + kind);
+        }
+        rates[kind] = rate;
+        return this;
+    }
+
+    /**
+     * @param hertz Samples per second of every finger, up to MAX_SAMPLE_RATE, 120 by default
+     * @return This generator
+     */
+    public GestureGenerator setSampleRate(int hertz) {
+        if (hertz < 1 || hertz > MAX_SAMPLE_RATE) {
+            throw new IllegalArgumentException("Invalid sample rate " + hertz + "Hz");
+        }
+        sampleRate = hertz;
+        return this;
+    }
+
+    /**
+     * @param hertz Move events per second of the event stream, 60 by default
+     * @return This generator
+     */
+    public GestureGenerator setFrameRate(int hertz) {
+        if (hertz < 1 || hertz > MAX_SAMPLE_RATE) {
+            throw new IllegalArgumentException("Invalid frame rate " + hertz + "Hz");
+        }
+        frameRate = hertz;
+        return this;
+    }
+
+    /**
+     * @param pointers Most fingers of a chord, up to MAX_POINTERS, 4 by default
+     * @return This generator
+     */
+    public GestureGenerator setMaxPointers(int pointers) {
+        if (pointers < 2 || pointers > MAX_POINTERS) {
+            throw new IllegalArgumentException("Invalid chord of " + pointers + " pointers");
+        }
+        maxPointers = pointers;
+        return this;
+    }
+
+    /**
+     * @param pixels Standard deviation of the sensor noise on human touches, 0.6 by default
+     * @return This generator
+     */
+    public GestureGenerator setNoise(float pixels) {
+        if (!(pixels >= 0)) {
+            throw new IllegalArgumentException("Invalid noise of " + pixels + " pixels");
+        }
+        noise = pixels;
+        return this;
+    }
+
+    /**
+     * @param period Standard deviation of the sample times as a share of the sample period,
+     *               kept below half a period so samples stay in order, 0.3 by default
+     * @return This generator
+     */
+    public GestureGenerator setJitter(float period) {
+        if (!(period >= 0)) {
+            throw new IllegalArgumentException("Invalid jitter of " + period + " periods");
+        }
+        jitter = period;
+        return this;
+    }
+
+    /**
+     * @param millis Average time between the last finger of one episode going up and the first
+     *               finger of the next going down, 250 by default
+     * @return This generator
+     */
+    public GestureGenerator setPause(long millis) {
+        if (millis < 1) {
+            throw new IllegalArgumentException("Invalid pause of " + millis + "ms");
+        }
+        pause = millis;
+        return this;
+    }
+
+    /**
+     * Generates the next finger, starting a new episode once every finger of the current one
+     * was taken. Fingers of a chord come as separate gestures with no parent.
+     *
+     * @return A finished gesture, from down to up
+     */
+    public Gesture next() {
+        if (nextStroke == strokeCount) {
+            episode();
+        }
+        final Stroke stroke = strokes[nextStroke++];
+        label = stroke.label;
+        final int first = stroke.first;
+        final Gesture gesture = new Gesture(null, stroke.id, stroke.xs[0], stroke.ys[0], clock[first], null);
+        final int last = stroke.count - 1;
+        for (int i = 1; i <= last; i++) {
+            gesture.addPoint(i == last ? Gesture.TAIL : Gesture.BODY, stroke.xs[i], stroke.ys[i], clock[first + i]);
+        }
+        return gesture;
+    }
+
+    /**
+     * Generates a labelled corpus, as BatchClassifier scores it.
+     *
+     * @return The number of gestures added
+     */
+    public int next(int count, List<Gesture> gestures, List<Classification> labels) {
+        for (int i = 0; i < count; i++) {
+            gestures.add(next());
+            labels.add(label);
+        }
+        return count;
+    }
+
+    /**
+     * @return What the last gesture returned by next() was meant to be, holds and tapping
+     * chords are taps and ghosts are phantoms
+     */
+    public Classification getLabel() {
+        return label;
+    }
+
+    /**
+     * @return TAP, SWIPE, HOLD, CHORD or GHOST, the kind of the current episode
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Writes whole episodes as pointer events, which GestureEngine.replay() feeds back through
+     * an engine. Fingers go down and up at their own samples, moves of every finger down are
+     * batched into frames, and pending moves are flushed before any finger goes down or up.
+     *
+     * @param episodes Number of episodes to write, any finger left over from next() is dropped
+     */
+    public void write(GestureRecorder recorder, int episodes) {
+        for (int e = 0; e < episodes; e++) {
+            episode();
+            nextStroke = strokeCount;
+            final long framePeriod = Math.max(1, 1000 / frameRate);
+            long frameEnd = clock[0] - clock[0] % framePeriod + framePeriod;
+            long pending = -1;                          // Time of the last move not yet framed
+            final int samples = samples();
+            for (int tick = 0; tick < samples; tick++) {
+                final long now = clock[tick];
+                if (pending >= 0 && now >= frameEnd) {
+                    recorder.record(GestureRecorder.FRAME, -1, 0, 0, pending);
+                    pending = -1;
+                }
+                while (frameEnd <= now) {
+                    frameEnd += framePeriod;
+                }
+                for (int s = 0; s < strokeCount; s++) {
+                    final Stroke stroke = strokes[s];
+                    final int i = tick - stroke.first;
+                    if (i == 0 || i == stroke.count - 1) {
+                        if (pending >= 0) {
+                            recorder.record(GestureRecorder.FRAME, -1, 0, 0, pending);
+                            pending = -1;
+                        }
+                        recorder.record(i == 0 ? GestureRecorder.DOWN : GestureRecorder.UP,
+                                stroke.id, stroke.xs[i], stroke.ys[i], now);
+                    } else if (i > 0 && i < stroke.count) {
+                        recorder.record(GestureRecorder.MOVE, stroke.id, stroke.xs[i], stroke.ys[i], now);
+                        pending = now;
+                    }
+                }
+            }
+        }
+    }
+
+    private int samples() {
+        int samples = 0;
+        for (int s = 0; s < strokeCount; s++) {
+            samples = Math.max(samples, strokes[s].first + strokes[s].count);
+        }
+        return samples;
+    }
+
+    private void episode() {
+        kind = pickKind();
+        strokeCount = 0;
+        nextStroke = 0;
+        time += (long) (pause * (0.5 + random.nextDouble())) + 1;
+        final float period = 1000.0f / sampleRate;
+        switch (kind) {
+            case TAP:
+                press(stroke(0, 0), randomX(0), randomY(0), 40 + random.nextInt(100), Classification.TAP);
+                break;
+            case SWIPE:
+                swipe(stroke(0, 0), randomDirection(), Float.NaN, Float.NaN);
+                break;
+            case HOLD:
+                press(stroke(0, 0), randomX(0), randomY(0), 600 + random.nextInt(900), Classification.TAP);
+                break;
+            case CHORD:
+                final int fingers = 2 + random.nextInt(maxPointers - 1);
+                final boolean swiping = random.nextBoolean();
+                final double direction = randomDirection();
+                final float spacing = width / (fingers + 1);
+                final float y = randomY(height / 4);
+                final int[] starts = new int[fingers];
+                for (int f = 0; f < fingers; f++) {
+                    starts[f] = (int) (random.nextInt(CHORD_SPREAD + 1) / period);
+                }
+                Arrays.sort(starts);                    // Pointer IDs follow the order fingers went down
+                for (int f = 0; f < fingers; f++) {
+                    final Stroke stroke = stroke(f, starts[f]);
+                    final float x = spacing * (f + 1) + (float) random.nextGaussian() * spacing / 8;
+                    if (swiping) {
+                        swipe(stroke, direction, x, y);
+                    } else {
+                        press(stroke, x, y + (float) random.nextGaussian() * height / 16,
+                                40 + random.nextInt(100), Classification.TAP);
+                    }
+                }
+                break;
+            default:
+                ghost(stroke(0, 0));
+                break;
+        }
+        final int samples = samples();
+        if (clock.length < samples) {
+            clock = new long[Math.max(samples, clock.length * 2)];
+        }
+        final float spread = Math.min(jitter, 0.45f) * period;
+        for (int tick = 0; tick < samples; tick++) {
+            final long sample = time + Math.round(tick * period + random.nextGaussian() * spread);
+            clock[tick] = tick == 0 ? time : Math.max(sample, clock[tick - 1] + 1);
+        }
+        time = clock[samples - 1];
+    }
+
+    private int pickKind() {
+        float total = 0;
+        for (final float rate : rates) {
+            total += rate;
+        }
+        if (total <= 0) {
+            throw new IllegalStateException("Every kind has a rate of 0");
+        }
+        float roll = random.nextFloat() * total;
+        for (int k = 0; k < KINDS - 1; k++) {
+            if (roll < rates[k]) {
+                return k;
+            }
+            roll -= rates[k];
+        }
+        return KINDS - 1;
+    }
+
+    private Stroke stroke(int id, int first) {
+        final Stroke stroke = strokes[strokeCount++];
+        stroke.id = id;
+        stroke.first = first;
+        stroke.count = 0;
+        return stroke;
+    }
+
+    /**
+     * A finger resting on one spot, drifting slowly.
+     */
+    private void press(Stroke stroke, float x, float y, int millis, Classification label) {
+        final int count = Math.max(2, Math.round(millis * sampleRate / 1000.0f) + 1);
+        final double drift = random.nextDouble() * Math.PI * 2;
+        final float driftLength = random.nextFloat() * 2;
+        float noiseX = 0;
+        float noiseY = 0;
+        stroke.ensure(count);
+        for (int i = 0; i < count; i++) {
+            final float t = i / (float) (count - 1);
+            stroke.xs[i] = x + (float) Math.cos(drift) * driftLength * t + noiseX;
+            stroke.ys[i] = y + (float) Math.sin(drift) * driftLength * t + noiseY;
+            noiseX = noiseX * NOISE_DECAY + (float) random.nextGaussian() * noise * 0.5f;
+            noiseY = noiseY * NOISE_DECAY + (float) random.nextGaussian() * noise * 0.5f;
+        }
+        stroke.count = count;
+        stroke.label = label;
+    }
+
+    /**
+     * A minimum jerk stroke from a point to another, bowed to one side.
+     *
+     * @param x Start, or NaN to pick one that keeps the stroke in the area
+     */
+    private void swipe(Stroke stroke, double direction, float x, float y) {
+        final boolean horizontal = Math.abs(Math.cos(direction)) > 0.5;
+        final float span = horizontal ? width : height;
+        final float length = span * (0.25f + random.nextFloat() * 0.4f);
+        final float dx = (float) Math.cos(direction) * length;
+        final float dy = (float) Math.sin(direction) * length;
+        if (Float.isNaN(x)) {
+            x = Math.max(0, -dx) + random.nextFloat() * (width - Math.abs(dx));
+            y = Math.max(0, -dy) + random.nextFloat() * (height - Math.abs(dy));
+        }
+        final float bow = length * (float) random.nextGaussian() * 0.04f;
+        final int millis = (int) ((80 + 170 * length / Math.max(width, height)) * (0.8f + random.nextFloat() * 0.4f));
+        final int count = Math.max(3, Math.round(millis * sampleRate / 1000.0f) + 1);
+        float noiseX = 0;
+        float noiseY = 0;
+        stroke.ensure(count);
+        for (int i = 0; i < count; i++) {
+            final float t = i / (float) (count - 1);
+            final float s = t * t * t * (10 - 15 * t + 6 * t * t);
+            final float side = bow * 4 * s * (1 - s);
+            stroke.xs[i] = x + dx * s - dy / length * side + noiseX;
+            stroke.ys[i] = y + dy * s + dx / length * side + noiseY;
+            noiseX = noiseX * NOISE_DECAY + (float) random.nextGaussian() * noise * 0.5f;
+            noiseY = noiseY * NOISE_DECAY + (float) random.nextGaussian() * noise * 0.5f;
+        }
+        stroke.count = count;
+        stroke.label = Classification.SWIPE;
+    }
+
+    /**
+     * A ghost touch: a straight run of equal whole pixel steps, a jump, another straight run
+     * and a few ragged samples at the end. Sensors report these in a burst, so the number of
+     * samples doesn't follow the sample rate.
+     */
+    private void ghost(Stroke stroke) {
+        final int run = 5 + random.nextInt(6);
+        final int ragged = 2 + random.nextInt(3);
+        final int count = run * 2 + ragged;
+        final float jump = width / 6 + random.nextFloat() * width / 4;
+        float x = Math.round(randomX(width / 3));
+        float y = Math.round(randomY(height / 4));
+        final int stepX = Math.abs(randomStep()) * (x > width / 2 ? 1 : -1);  // Jumps back against the run
+        final int stepY = random.nextInt(3) == 0 ? randomStep() : 0;
+        stroke.ensure(count);
+        int i = 0;
+        for (int leg = 0; leg < 2; leg++) {
+            for (int r = 0; r < run; r++, i++) {
+                stroke.xs[i] = x;
+                stroke.ys[i] = y;
+                x += leg == 0 ? stepX : stepY;
+                y += leg == 0 ? stepY : stepX;
+            }
+            if (leg == 0) {
+                x = Math.round(x + (x > width / 2 ? -jump : jump));
+            }
+        }
+        for (; i < count; i++) {
+            final double angle = random.nextDouble() * Math.PI * 2;
+            final float length = 8 + random.nextFloat() * 30;
+            x += (float) Math.cos(angle) * length;
+            y += (float) Math.sin(angle) * length;
+            stroke.xs[i] = x;
+            stroke.ys[i] = y;
+        }
+        stroke.count = count;
+        stroke.label = Classification.PHANTOM;
+    }
+
+    private int randomStep() {
+        final int step = 2 + random.nextInt(6);
+        return random.nextBoolean() ? step : -step;
+    }
+
+    /**
+     * @return Left, up, right or down, give or take 15 degrees
+     */
+    private double randomDirection() {
+        return random.nextInt(4) * Math.PI / 2 + (random.nextDouble() - 0.5) * Math.PI / 6;
+    }
+
+    private float randomX(float margin) {
+        return margin + random.nextFloat() * (width - margin * 2);
+    }
+
+    private float randomY(float margin) {
+        return margin + random.nextFloat() * (height - margin * 2);
+    }
+
+    /**
+     * The samples of one finger, taken at consecutive ticks of the episode's clock.
+     */
+    private static final class Stroke {
+
+        int id;
+        int first;                                      // Tick of the first sample
+        int count;
+        float[] xs = new float[64];
+        float[] ys = new float[64];
+        Classification label;
+
+        void ensure(int capacity) {
+            if (xs.length < capacity) {
+                xs = Arrays.copyOf(xs, Math.max(capacity, xs.length * 2));
+                ys = Arrays.copyOf(ys, xs.length);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.fleksy.swipedetector.tool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of every stage of handling touches, plus counters of what they turned into. All
+ * memory is allocated up front and recording is lock free, so it can stay on in production,
+ * with snapshots taken from any thread for export.
+ */
+public final class GestureMetrics {
+
+    /* Stages, the refinery includes the check and the callbacks it runs, and moves are timed
+       once their samples were added */
+    public static final int DOWN = 0;
+    public static final int MOVE = 1;
+    public static final int UP = 2;
+    public static final int REFINERY = 3;
+    public static final int CHECK = 4;
+    public static final int CALLBACK = 5;
+    public static final int STAGES = 6;
+
+    /* Counters */
+    public static final int TAPS = 0;
+    public static final int SWIPES = 1;
+    public static final int PHANTOMS = 2;
+    public static final int HOLDS = 3;
+    public static final int MULTI_TOUCHES = 4;
+    public static final int EARLY_EXITS = 5;        // Checks cut short by SwipeDetector.exitingEarly()
+    public static final int PREDICTIONS = 6;        // Swipes predicted before their release
+    public static final int RETRACTIONS = 7;        // Predictions that didn't end up a swipe that way
+    public static final int COUNTERS = 8;
+
+    private static final String[] STAGE_NAMES = {"down", "move", "up", "refinery", "check", "callback"};
+    private static final String[] COUNTER_NAMES = {"taps", "swipes", "phantoms", "holds", "multi touches",
+            "early exits", "predictions", "retractions"};
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[STAGES];
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+
+    public GestureMetrics() {
+        for (int i = 0; i < STAGES; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param stage Stage that ran
+     * @param nanos How long it took
+     */
+    public void record(int stage, long nanos) {
+        stages[stage].record(nanos);
+    }
+
+    public void count(int counter) {
+        counters.incrementAndGet(counter);
+    }
+
+    public LatencyHistogram getStage(int stage) {
+        return stages[stage];
+    }
+
+    public long getCount(int counter) {
+        return counters.get(counter);
+    }
+
+    public void reset() {
+        for (int i = 0; i < STAGES; i++) {
+            stages[i].reset();
+        }
+        for (int i = 0; i < COUNTERS; i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    /**
+     * @return A copy of the metrics that nothing records into
+     */
+    public GestureMetrics snapshot() {
+        final GestureMetrics snapshot = new GestureMetrics();
+        for (int i = 0; i < STAGES; i++) {
+            snapshot.stages[i] = stages[i].snapshot();
+        }
+        for (int i = 0; i < COUNTERS; i++) {
+            snapshot.counters.set(i, counters.get(i));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot and resets the metrics, without losing anything recorded in between.
+     *
+     * @return The metrics up to now
+     */
+    public GestureMetrics drain() {
+        final GestureMetrics snapshot = new GestureMetrics();
+        for (int i = 0; i < STAGES; i++) {
+            snapshot.stages[i] = stages[i].drain();
+        }
+        for (int i = 0; i < COUNTERS; i++) {
+            snapshot.counters.set(i, counters.getAndSet(i, 0));
+        }
+        return snapshot;
+    }
+
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    public static String getCounterName(int counter) {
+        return COUNTER_NAMES[counter];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        for (int i = 0; i < COUNTERS; i++) {
+            out.append(COUNTER_NAMES[i]).append(": ").append(counters.get(i)).append('\n');
+        }
+        for (int i = 0; i < STAGES; i++) {
+            out.append(STAGE_NAMES[i]).append(": ").append(stages[i]).append('\n');
+        }
+        return out.toString();
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.fleksy.swipedetector.tool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the pointer events seen by a GestureEngine into a compact binary recording, read
+ * back by GestureRecording.
+ * <p>
+ * A recording starts with the MAGIC bytes and the VERSION, followed by one record per event:
+ * <ul>
+ * <li>A head byte holding the event type in the high 3 bits and the pointer ID in the low 5.</li>
+ * <li>The change in event time since the previous record, as a zigzag varint.</li>
+ * <li>For DOWN, MOVE and UP, the change in the bits of the refined x and y coordinates since
+ * the previous coordinates of the same pointer, as zigzag varints. Consecutive samples of a
+ * finger usually share an exponent, so this keeps most coordinates to one or two bytes while
+ * replaying the exact same floats.</li>
+ * </ul>
+ * Failed writes never throw from record(), the first one stops the recording and is thrown by
+ * close().
+ */
+public final class GestureRecorder implements Closeable {
+
+    public static final int DOWN = 0;
+    public static final int MOVE = 1; // One sample of one pointer
+    public static final int FRAME = 2; // End of the samples of one move event
+    public static final int UP = 3;
+    public static final int CANCEL = 4;
+
+    public static final int MAX_POINTERS = 32; // Android hands out pointer IDs up to 31
+    static final byte[] MAGIC = {'S', 'W', 'D', 'R'};
+    static final int VERSION = 2;
+    static final int ID_BITS = 5;
+    static final int ID_MASK = (1 << ID_BITS) - 1;
+
+    private static final int MAX_RECORD = 1 + 10 + 5 + 5;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private final int[] xs = new int[MAX_POINTERS];
+    private final int[] ys = new int[MAX_POINTERS];
+    private int position;
+    private long time;
+    private IOException error;
+
+    public GestureRecorder(OutputStream out) {
+        this.out = out;
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        buffer[MAGIC.length] = VERSION;
+        position = MAGIC.length + 1;
+    }
+
+    /**
+     * Records a pointer event.
+     *
+     * @param type      DOWN, MOVE, FRAME, UP or CANCEL
+     * @param pointerId ID of the pointer, ignored for FRAME and CANCEL
+     * @param x         Refined x coordinate, ignored for FRAME and CANCEL
+     * @param y         Refined y coordinate, ignored for FRAME and CANCEL
+     * @param eventTime Time of the event in milliseconds
+     * @throws IllegalArgumentException If the pointer ID is outside [0, MAX_POINTERS)
+     */
+    public void record(int type, int pointerId, float x, float y, long eventTime) {
+        final boolean pointer = hasPointer(type);
+        if (pointer && (pointerId < 0 || pointerId >= MAX_POINTERS)) {
+            throw new IllegalArgumentException("Pointer ID " + pointerId + " can't be recorded");
+        }
+        if (error != null) {
+            return;
+        }
+        if (buffer.length - position < MAX_RECORD) {
+            drain();
+        }
+        buffer[position++] = (byte) ((type << ID_BITS) | (pointer ? pointerId : 0));
+        writeVarLong(eventTime - time);
+        time = eventTime;
+        if (pointer) {
+            final int xBits = Float.floatToIntBits(x);
+            final int yBits = Float.floatToIntBits(y);
+            writeVarInt(xBits - xs[pointerId]);
+            writeVarInt(yBits - ys[pointerId]);
+            xs[pointerId] = xBits;
+            ys[pointerId] = yBits;
+        }
+    }
+
+    /**
+     * @return Event time of the last record, 0 before the first one
+     */
+    public long getLastTime() {
+        return time;
+    }
+
+    static boolean hasPointer(int type) {
+        return type == DOWN || type == MOVE || type == UP;
+    }
+
+    private void writeVarInt(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+    }
+
+    private void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+    }
+
+    private void drain() {
+        if (error != null) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException e) {
+            error = e;
+        }
+        position = 0;
+    }
+
+    /**
+     * Writes out everything recorded so far.
+     *
+     * @throws IOException The first failure met while recording
+     */
+    public void flush() throws IOException {
+        drain();
+        if (error != null) {
+            throw error;
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+}
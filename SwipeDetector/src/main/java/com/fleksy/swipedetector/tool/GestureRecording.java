@@ -0,0 +1,151 @@
+package com.fleksy.swipedetector.tool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a recording written by GestureRecorder. The recording is walked like a cursor: next()
+ * decodes one event in place and the getters describe it, so replaying a session creates no
+ * objects per event. Files are memory mapped rather than read into the heap.
+ */
+public final class GestureRecording {
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int[] xs = new int[GestureRecorder.MAX_POINTERS];
+    private final int[] ys = new int[GestureRecorder.MAX_POINTERS];
+
+    private int type;
+    private int pointerId;
+    private float x;
+    private float y;
+    private long time;
+
+    public GestureRecording(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        for (byte b : GestureRecorder.MAGIC) {
+            if (!buffer.hasRemaining() || buffer.get() != b) {
+                throw new IOException("Not a gesture recording");
+            }
+        }
+        if (!buffer.hasRemaining() || buffer.get() != GestureRecorder.VERSION) {
+            throw new IOException("Unsupported gesture recording version");
+        }
+        start = buffer.position();
+    }
+
+    /**
+     * Memory maps a recording.
+     *
+     * @param file File written through a GestureRecorder
+     * @return The recording, positioned before its first event
+     * @throws IOException If the file can't be mapped or isn't a recording
+     */
+    public static GestureRecording open(File file) throws IOException {
+        final RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = input.getChannel();
+            return new GestureRecording(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            input.close();      // The mapping stays valid
+        }
+    }
+
+    /**
+     * Decodes the next event.
+     *
+     * @return False once every event has been read
+     * @throws IllegalStateException If the recording ends in the middle of an event
+     */
+    public boolean next() {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        final int head = buffer.get() & 0xFF;
+        type = head >>> GestureRecorder.ID_BITS;
+        time += readVarLong();
+        if (GestureRecorder.hasPointer(type)) {
+            pointerId = head & GestureRecorder.ID_MASK;
+            xs[pointerId] += readVarInt();
+            ys[pointerId] += readVarInt();
+            x = Float.intBitsToFloat(xs[pointerId]);
+            y = Float.intBitsToFloat(ys[pointerId]);
+        } else {
+            pointerId = -1;
+        }
+        return true;
+    }
+
+    /**
+     * Goes back to before the first event.
+     */
+    public void rewind() {
+        buffer.position(start);
+        for (int i = 0; i < GestureRecorder.MAX_POINTERS; i++) {
+            xs[i] = 0;
+            ys[i] = 0;
+        }
+        time = 0;
+    }
+
+    /**
+     * @return GestureRecorder.DOWN, MOVE, FRAME, UP or CANCEL
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * @return ID of the pointer, -1 for FRAME and CANCEL
+     */
+    public int getPointerId() {
+        return pointerId;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    private byte read() {
+        if (!buffer.hasRemaining()) {
+            throw new IllegalStateException("Truncated gesture recording");
+        }
+        return buffer.get();
+    }
+
+    private int readVarInt() {
+        int zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = read();
+            zigzag |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = read();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+}
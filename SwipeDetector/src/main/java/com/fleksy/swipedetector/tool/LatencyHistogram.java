@@ -0,0 +1,164 @@
+package com.fleksy.swipedetector.tool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed memory log-linear histogram of durations in nanoseconds. Every power of two is split
+ * into SUB_BUCKETS linear buckets, so a recorded value is reported within 1 / SUB_BUCKETS of
+ * itself from a nanosecond up to MAX_VALUE, where larger values are clamped. Recording is a
+ * single atomic increment, so any number of threads can record without locks or allocations.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40;
+    public static final long MAX_VALUE = (1L << MAX_BITS) - 1; // About 18 minutes
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param nanos Duration to record, negative durations count as 0
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Copies the counts into a histogram nothing records into. The copy is taken bucket by
+     * bucket, so values recorded meanwhile may or may not be part of it.
+     *
+     * @return A copy of this histogram
+     */
+    public LatencyHistogram snapshot() {
+        final LatencyHistogram snapshot = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot.counts.set(i, counts.get(i));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot and resets the counts, without losing values recorded in between.
+     *
+     * @return The counts up to now
+     */
+    public LatencyHistogram drain() {
+        final LatencyHistogram snapshot = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot.counts.set(i, counts.getAndSet(i, 0));
+        }
+        return snapshot;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return Mean of the recorded values, taking each one as the middle of its bucket
+     */
+    public double getMean() {
+        long count = 0;
+        double total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            final long n = counts.get(i);
+            if (n > 0) {
+                count += n;
+                total += n * (lowest(i) + highest(i)) / 2.0;
+            }
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * @return Highest value of the highest bucket holding a value, 0 if nothing was recorded
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return highest(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Highest value of the bucket holding the percentile, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highest(i);
+            }
+        }
+        return getMax();
+    }
+
+    public int getBucketCount() {
+        return BUCKETS;
+    }
+
+    public long getBucket(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * @return Lowest value counted in the bucket
+     */
+    public static long lowest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket >> SUB_BITS) - 1;
+        return (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+    }
+
+    /**
+     * @return Highest value counted in the bucket
+     */
+    public static long highest(int bucket) {
+        return bucket == BUCKETS - 1 ? MAX_VALUE : lowest(bucket + 1) - 1;
+    }
+
+    /**
+     * @return Bucket counting the value
+     */
+    public static int bucket(long nanos) {
+        final long value = Math.min(MAX_VALUE, Math.max(0, nanos));
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) (value >> shift) - SUB_BUCKETS;
+    }
+
+    @Override
+    public String toString() {
+        return "count " + getCount()
+                + " mean " + Math.round(getMean())
+                + "ns p50 " + getPercentile(50)
+                + "ns p99 " + getPercentile(99)
+                + "ns max " + getMax() + "ns";
+    }
+
+}
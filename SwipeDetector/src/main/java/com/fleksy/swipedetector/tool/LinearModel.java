@@ -0,0 +1,65 @@
+package com.fleksy.swipedetector.tool;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A linear model over GestureFeatures, such as a logistic regression whose log odds are the
+ * score. Any scaling of the features has to be folded into the weights and bias.
+ */
+public final class LinearModel extends TrainedClassifier {
+
+    static final byte[] MAGIC = {'S', 'W', 'L', 'M'};
+    static final int VERSION = 1;
+
+    private final float[] weights;
+    private final float bias;
+
+    /**
+     * @param weights Weight of every feature, indexed by the GestureFeatures constants
+     * @param bias    Score of a vector of zeroes
+     * @throws IllegalArgumentException If there isn't one weight per feature
+     */
+    public LinearModel(float[] weights, float bias) {
+        if (weights.length != GestureFeatures.FEATURES) {
+            throw new IllegalArgumentException("Expected " + GestureFeatures.FEATURES + " weights");
+        }
+        this.weights = weights.clone();
+        this.bias = bias;
+    }
+
+    @Override
+    public float score(float[] vector) {
+        float score = bias;
+        for (int i = 0; i < GestureFeatures.FEATURES; i++) {
+            score += weights[i] * vector[i];
+        }
+        return score;
+    }
+
+    /**
+     * Reads a model written by write().
+     *
+     * @throws IOException If the stream doesn't hold a linear model
+     */
+    public static LinearModel read(InputStream input) throws IOException {
+        final DataInputStream in = new DataInputStream(input);
+        readHeader(in, MAGIC, VERSION);
+        final float[] weights = readFloats(in, GestureFeatures.FEATURES);
+        return new LinearModel(weights, in.readFloat());
+    }
+
+    public void write(OutputStream output) throws IOException {
+        final DataOutputStream out = new DataOutputStream(output);
+        writeHeader(out, MAGIC, VERSION);
+        for (float weight : weights) {
+            out.writeFloat(weight);
+        }
+        out.writeFloat(bias);
+        out.flush();
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+/**
+ * Decides whether a gesture that went far enough to be a swipe was drawn by a finger or
+ * fabricated by the digitizer. The refinery asks its classifier once per swipe, the default
+ * one being the rule cascade of the SwipeDetector. Classifiers are called from the thread
+ * refining touches, so one that keeps state must not be shared between detectors.
+ */
+public interface PhantomClassifier {
+
+    /**
+     * @param swipe  A finished gesture longer than the minimum swipe length
+     * @param width  Width of the touch area
+     * @param height Height of the touch area
+     * @return True if the gesture is a phantom swipe
+     */
+    boolean isPhantom(Gesture swipe, float width, float height);
+
+}
@@ -0,0 +1,225 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Direction;
+
+/**
+ * Fixed size ring buffer holding the decisions made while scanning gestures. Every entry is
+ * a rule ID, the point index it applies to, the weight after the rule, the change it made to
+ * the weight and up to VALUES numeric inputs. Nothing is formatted until the trace is read,
+ * so recording only costs a few primitive writes.
+ */
+public final class ScanTrace {
+
+    public static final int SCAN = 0;
+    public static final int BAD_FPOINTS = 1;
+    public static final int POINT = 2;
+    public static final int DELTA_ERROR = 3;
+    public static final int EARLY_ZERO_LENGTH = 4;
+    public static final int LATE_ZERO_LENGTH = 5;
+    public static final int DIRECTION = 6;
+    public static final int BAD_DIRECTIONS = 7;
+    public static final int PERFECT_COMBO = 8;
+    public static final int OVER_ANGLE = 9;
+    public static final int CRAZY_ANGLE = 10;
+    public static final int ERRORS = 11;
+    public static final int MAX_ERRORS = 12;
+    public static final int JUMPER = 13;
+    public static final int PHANTOM_LINE = 14;
+    public static final int BAD_ENDING = 15;
+    public static final int TERRIBLE_SWIPE = 16;
+    public static final int VERTICAL_SAVE = 17;
+    public static final int TINY_ENDING = 18;
+    public static final int GOOD_LENGTH_REDEMPTION = 19;
+    public static final int GOOD_SWIPE = 20;
+    public static final int BAD_SWIPE = 21;
+    public static final int STATISTICS = 22;
+    public static final int SUMMARY = 23;
+    public static final int EARLY_EXIT = 24;
+
+    private static final String[] NAMES = {
+            "SCAN", "BAD SWIPE/BAD FPoints!", "POINT", "Delta Err:", "EARLY ZERO LENGTH",
+            "LATE ZERO LENGTH", "DIRECTION:", "BAD DIRECTIONS", ".:*PERFECT COMBO*:.", "OVER ANGLE",
+            "CRAZY ANGLE", "ERRORS", "MAX ERRORS", "JUMPER", "PHANTOM LINE", "BAD ENDING",
+            "TERRIBLE SWIPE", "VERTICAL SAVE!", "TINY ENDING", "GOOD LENGTH REDEMPTION",
+            "GOOD SWIPE:", "BAD SWIPE:", "STATISTICS", "SUMMARY", "EARLY EXIT"
+    };
+
+    public static final int VALUES = 6;
+
+    private final int capacity;
+    private final byte[] rules;
+    private final int[] indices;
+    private final float[] weights;
+    private final float[] deltas;
+    private final double[] values;
+    private long written;
+
+    public ScanTrace(int capacity) {
+        this.capacity = capacity;
+        rules = new byte[capacity];
+        indices = new int[capacity];
+        weights = new float[capacity];
+        deltas = new float[capacity];
+        values = new double[capacity * VALUES];
+    }
+
+    /**
+     * Writes an entry, overwriting the oldest one once the buffer is full.
+     *
+     * @param rule   Rule ID
+     * @param index  Index of the point the rule applies to, -1 for the whole gesture
+     * @param weight Weight after the rule was applied
+     * @param delta  Change the rule made to the weight
+     */
+    public void record(int rule, int index, float weight, float delta,
+                       double v0, double v1, double v2, double v3, double v4, double v5) {
+        final int slot = (int) (written % capacity);
+        rules[slot] = (byte) rule;
+        indices[slot] = index;
+        weights[slot] = weight;
+        deltas[slot] = delta;
+        final int offset = slot * VALUES;
+        values[offset] = v0;
+        values[offset + 1] = v1;
+        values[offset + 2] = v2;
+        values[offset + 3] = v3;
+        values[offset + 4] = v4;
+        values[offset + 5] = v5;
+        written++;
+    }
+
+    /**
+     * Appends every entry held by another trace, oldest first.
+     */
+    public void append(ScanTrace other) {
+        for (int entry = 0; entry < other.size(); entry++) {
+            final int offset = other.slot(entry) * VALUES;
+            record(other.getRule(entry), other.getIndex(entry), other.getWeight(entry), other.getWeightDelta(entry),
+                    other.values[offset], other.values[offset + 1], other.values[offset + 2],
+                    other.values[offset + 3], other.values[offset + 4], other.values[offset + 5]);
+        }
+    }
+
+    public void clear() {
+        written = 0;
+    }
+
+    /**
+     * @return Number of entries currently held, oldest first
+     */
+    public int size() {
+        return (int) Math.min(written, capacity);
+    }
+
+    /**
+     * @return Number of entries written since the trace was cleared, including overwritten ones
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    private int slot(int entry) {
+        return (int) ((written - size() + entry) % capacity);
+    }
+
+    public int getRule(int entry) {
+        return rules[slot(entry)];
+    }
+
+    public int getIndex(int entry) {
+        return indices[slot(entry)];
+    }
+
+    public float getWeight(int entry) {
+        return weights[slot(entry)];
+    }
+
+    public float getWeightDelta(int entry) {
+        return deltas[slot(entry)];
+    }
+
+    public double getValue(int entry, int value) {
+        return values[slot(entry) * VALUES + value];
+    }
+
+    /**
+     * @return The entry that started the most recent scan, or 0 if it was overwritten
+     */
+    public int getLatestScan() {
+        for (int entry = size() - 1; entry >= 0; entry--) {
+            if (getRule(entry) == SCAN) {
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    public static String getName(int rule) {
+        return NAMES[rule];
+    }
+
+    /**
+     * Formats every entry from the given one onwards, one line each.
+     *
+     * @param out   Builder the lines are appended to
+     * @param first First entry to format
+     * @return The provided builder
+     */
+    public StringBuilder appendTo(StringBuilder out, int first) {
+        for (int entry = first; entry < size(); entry++) {
+            appendEntry(out, entry);
+            out.append("\n");
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(), 0).toString();
+    }
+
+    private void appendEntry(StringBuilder out, int entry) {
+        final int rule = getRule(entry);
+        switch (rule) {
+            case SCAN:
+                break;
+            case POINT:
+                double rad = getValue(entry, 3);
+                if (rad < 0) {
+                    rad += 6.28; // Provides a positive radian for easier assessment
+                }
+                out.append(getIndex(entry))
+                        .append(" d").append(Math.round(rad * 100) / 100.0)
+                        .append("b [").append(Math.round(getValue(entry, 4) * 1000) / 1000.0)
+                        .append("] <").append(Math.round(getValue(entry, 0)))
+                        .append(", ").append(Math.round(getValue(entry, 1)))
+                        .append("> l: ").append(Math.round(getValue(entry, 2) * 1000) / 1000.0)
+                        .append(" Dir: ").append(Direction.values()[(int) getValue(entry, 5)]);
+                break;
+            case DELTA_ERROR:
+                out.append(getName(rule)).append(' ').append(getValue(entry, 0));
+                break;
+            case DIRECTION:
+                out.append(getName(rule)).append(' ').append(Direction.values()[(int) getValue(entry, 0)]);
+                break;
+            case STATISTICS:
+                out.append("DeltaV: ").append((float) getValue(entry, 0))
+                        .append(" Length: ").append(getValue(entry, 1)).append("\n")
+                        .append("N Std Dev: ").append((float) getValue(entry, 2))
+                        .append(" Avg L: ").append(getValue(entry, 3));
+                break;
+            case SUMMARY:
+                out.append("Deg Err: ").append(Math.round(getValue(entry, 0) * 1000) / 1000.0).append("\n")
+                        .append("Time Taken: ").append((long) getValue(entry, 1));
+                break;
+            default:
+                out.append(getName(rule)).append(' ').append(getWeight(entry));
+                if (getWeightDelta(entry) != 0) {
+                    out.append(" (").append(getWeightDelta(entry) > 0 ? "+" : "")
+                            .append(getWeightDelta(entry)).append(')');
+                }
+                break;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.fleksy.swipedetector.tool;
+
+/**
+ * Runs timers after a delay on the input thread. Timers are reusable, scheduling one that is
+ * already pending moves it to the new deadline.
+ */
+public interface Scheduler {
+
+    /**
+     * @return Current time in milliseconds, on the same clock as the event times
+     */
+    long now();
+
+    /**
+     * Runs the timer once the delay has passed, replacing any previous deadline it had.
+     *
+     * @param timer Timer to run
+     * @param delay Delay in milliseconds
+     */
+    void schedule(Timer timer, long delay);
+
+    /**
+     * Stops a timer from running, does nothing if it isn't pending.
+     */
+    void cancel(Timer timer);
+
+    /**
+     * Runs every timer due by the given event time. Schedulers that follow the wall clock ignore
+     * this, while virtual clocks are moved forward by it, so timers fire in step with the events.
+     *
+     * @param time Event time being handled
+     */
+    void advanceTo(long time);
+
+}
@@ -0,0 +1,161 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+/**
+ * Extracts the per segment deltas and lengths of a whole path at once, with their summary
+ * statistics, for offline scoring and analytics over long traces. Each feature is computed by
+ * its own counted loop over primitive arrays, free of calls and branches, which HotSpot's
+ * superword pass turns into SIMD instructions. Everything stays in single precision for that,
+ * as widening to double stops the loops from being vectorised, so lengths are within a float
+ * rounding of Calculator.calcLength() and the sums within a few parts per million of double
+ * ones. The arrays are reused between paths, so an instance must only be used by one thread
+ * at a time.
+ */
+public final class SegmentFeatures {
+
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] deltaX = new float[0];
+    private float[] deltaY = new float[0];
+    private float[] lengths = new float[0];
+    private int segments;
+    private double pathLength;
+    private double squares;
+    private double minLength;
+    private double maxLength;
+    private double span;
+
+    /**
+     * Extracts the features of the path of a gesture.
+     *
+     * @return This instance
+     */
+    public SegmentFeatures extract(Gesture gesture) {
+        final int count = gesture.getPointCount();
+        if (x.length < count) {
+            x = new float[count];
+            y = new float[count];
+        }
+        gesture.copyPath(x, y);
+        return extract(x, y, count);
+    }
+
+    /**
+     * Extracts the features of the path joining the given points.
+     *
+     * @param xs    X coordinates of the points
+     * @param ys    Y coordinates of the points
+     * @param count Number of points to use from the start of the arrays
+     * @return This instance
+     */
+    public SegmentFeatures extract(float[] xs, float[] ys, int count) {
+        segments = Math.max(0, count - 1);
+        if (deltaX.length < segments) {
+            final int capacity = Math.max(segments, deltaX.length + (deltaX.length >> 1));
+            deltaX = new float[capacity];
+            deltaY = new float[capacity];
+            lengths = new float[capacity];
+        }
+        final float[] dX = deltaX;
+        final float[] dY = deltaY;
+        final float[] ln = lengths;
+        final int n = segments;
+
+        for (int i = 0; i < n; i++) {
+            dX[i] = xs[i + 1] - xs[i];
+        }
+        for (int i = 0; i < n; i++) {
+            dY[i] = ys[i + 1] - ys[i];
+        }
+        for (int i = 0; i < n; i++) {
+            ln[i] = (float) Math.sqrt((dX[i] * dX[i]) + (dY[i] * dY[i]));
+        }
+
+        float sum = 0;
+        float sumOfSquares = 0;
+        for (int i = 0; i < n; i++) {
+            sum += ln[i];
+            sumOfSquares += ln[i] * ln[i];
+        }
+        float min = n > 0 ? ln[0] : 0;
+        float max = min;
+        for (int i = 0; i < n; i++) {
+            min = ln[i] < min ? ln[i] : min;
+            max = ln[i] > max ? ln[i] : max;
+        }
+        pathLength = sum;
+        squares = sumOfSquares;
+        minLength = min;
+        maxLength = max;
+        span = n > 0 ? Calculator.calcLength(xs[n] - xs[0], ys[n] - ys[0]) : 0;
+        return this;
+    }
+
+    public int getSegmentCount() {
+        return segments;
+    }
+
+    /**
+     * @return Horizontal delta of every segment, only the first getSegmentCount() are valid
+     */
+    public float[] getDeltaXs() {
+        return deltaX;
+    }
+
+    /**
+     * @return Vertical delta of every segment, only the first getSegmentCount() are valid
+     */
+    public float[] getDeltaYs() {
+        return deltaY;
+    }
+
+    /**
+     * @return Length of every segment, only the first getSegmentCount() are valid
+     */
+    public float[] getLengths() {
+        return lengths;
+    }
+
+    /**
+     * @return Sum of the segment lengths
+     */
+    public double getPathLength() {
+        return pathLength;
+    }
+
+    public double getMeanLength() {
+        return segments > 0 ? Calculator.calcAverage(pathLength, segments) : 0;
+    }
+
+    /**
+     * @return Population standard deviation of the segment lengths
+     */
+    public float getStandardDeviation() {
+        return Calculator.calcStandardDeviation(segments, pathLength, squares);
+    }
+
+    public double getMinLength() {
+        return minLength;
+    }
+
+    public double getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return Distance between the first and last points over the path length, 1 for a straight
+     * line and lower the more the path wanders, 0 for paths without length
+     */
+    public double getStraightness() {
+        return pathLength > 0 ? span / pathLength : 0;
+    }
+
+    @Override
+    public String toString() {
+        return segments + " segments, length " + pathLength
+                + " (mean " + getMeanLength() + ", std dev " + getStandardDeviation()
+                + ", min " + minLength + ", max " + maxLength + "), straightness " + getStraightness();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.fleksy.swipedetector.tool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock free queue for exactly one producer thread and one consumer thread. Each side
+ * only writes its own index and publishes it with an ordered store, so neither offer() nor
+ * poll() blocks or allocates.
+ *
+ * @param <E> Type of the items handed over
+ */
+public final class SpscQueue<E> {
+
+    private final Object[] items;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next item to poll, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // Next slot to offer to, written by the producer
+
+    /**
+     * @param capacity Minimum number of items the queue can hold, rounded up to a power of two
+     */
+    public SpscQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        items = new Object[Math.max(1, size)];
+        mask = items.length - 1;
+    }
+
+    /**
+     * Adds an item, only to be called by the producer thread.
+     *
+     * @return False if the queue is full
+     */
+    public boolean offer(E item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        final long t = tail.get();
+        if (t - head.get() == items.length) {
+            return false;
+        }
+        items[(int) t & mask] = item;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest item, only to be called by the consumer thread.
+     *
+     * @return The oldest item, null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        final int slot = (int) h & mask;
+        final E item = (E) items[slot];
+        items[slot] = null;
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+}
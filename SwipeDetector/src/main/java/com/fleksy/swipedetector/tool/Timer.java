@@ -0,0 +1,25 @@
+package com.fleksy.swipedetector.tool;
+
+/**
+ * Reusable timer, handed to a Scheduler every time its task has to run after a delay.
+ */
+public final class Timer implements Runnable {
+
+    private final Runnable task;
+
+    /* Bookkeeping of the TimerWheel holding the timer */
+    TimerWheel wheel;
+    Timer previous;
+    Timer next;
+    long deadline;
+
+    public Timer(Runnable task) {
+        this.task = task;
+    }
+
+    @Override
+    public void run() {
+        task.run();
+    }
+
+}
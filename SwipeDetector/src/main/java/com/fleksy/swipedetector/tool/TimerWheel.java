@@ -0,0 +1,134 @@
+package com.fleksy.swipedetector.tool;
+
+/**
+ * Hashed timer wheel running on a virtual clock. Timers are linked into the slot of the tick
+ * they are due on, so scheduling and cancelling are O(1) and never allocate, and time only
+ * moves when advanceTo() is called. Timing is then fully deterministic and can run faster than
+ * real time, for tests and replays. Timers due on the same tick run in the order they were
+ * scheduled. Not thread safe, timers run on the thread calling advanceTo().
+ */
+public final class TimerWheel implements Scheduler {
+
+    private final Timer[] heads;
+    private final Timer[] tails;
+    private final int mask;
+    private final long tickMillis;
+    private long tick;
+    private int count;
+
+    /**
+     * Creates a wheel with one millisecond ticks, starting at time 0.
+     */
+    public TimerWheel() {
+        this(512, 1, 0);
+    }
+
+    /**
+     * @param slots      Number of slots, rounded up to a power of two. Timers due further than
+     *                   slots ticks away wait in their slot for as many turns of the wheel.
+     * @param tickMillis Length of a tick, deadlines are rounded up to it
+     * @param start      Time the clock starts at
+     */
+    public TimerWheel(int slots, long tickMillis, long start) {
+        if (slots < 1 || slots > (1 << 30) || tickMillis < 1) {
+            throw new IllegalArgumentException("Invalid wheel of " + slots + " slots of " + tickMillis + "ms");
+        }
+        final int size = Math.max(1, Integer.highestOneBit(slots - 1) << 1);
+        heads = new Timer[size];
+        tails = new Timer[size];
+        mask = size - 1;
+        this.tickMillis = tickMillis;
+        tick = start / tickMillis;
+    }
+
+    @Override
+    public long now() {
+        return tick * tickMillis;
+    }
+
+    /**
+     * @return Number of pending timers
+     */
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void schedule(Timer timer, long delay) {
+        if (timer.wheel != null) {
+            timer.wheel.cancel(timer);
+        }
+        final long ticks = (Math.max(0, delay) + tickMillis - 1) / tickMillis;
+        timer.deadline = tick + ticks;
+        timer.wheel = this;
+        final int slot = (int) timer.deadline & mask;
+        timer.previous = tails[slot];
+        timer.next = null;
+        if (tails[slot] == null) {
+            heads[slot] = timer;
+        } else {
+            tails[slot].next = timer;
+        }
+        tails[slot] = timer;
+        count++;
+    }
+
+    @Override
+    public void cancel(Timer timer) {
+        if (timer.wheel != this) {
+            return;
+        }
+        final int slot = (int) timer.deadline & mask;
+        if (timer.previous == null) {
+            heads[slot] = timer.next;
+        } else {
+            timer.previous.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[slot] = timer.previous;
+        } else {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.wheel = null;
+        count--;
+    }
+
+    /**
+     * Moves the clock forward, running every timer due up to and including the given time.
+     * Timers scheduled with no delay while running run before the clock moves on. Moving the
+     * clock backwards does nothing.
+     */
+    @Override
+    public void advanceTo(long time) {
+        final long target = time / tickMillis;
+        expire();
+        while (tick < target) {
+            if (count == 0) {
+                tick = target;                              // Nothing to run on the way
+                break;
+            }
+            tick++;
+            expire();
+        }
+    }
+
+    /**
+     * Runs the timers due on the current tick, including any scheduled by the ones running.
+     */
+    private void expire() {
+        final int slot = (int) tick & mask;
+        Timer timer = heads[slot];
+        while (timer != null) {
+            if (timer.deadline <= tick) {
+                cancel(timer);
+                timer.run();
+                timer = heads[slot];                        // Running may have changed the slot
+            } else {
+                timer = timer.next;                         // Due on a later turn of the wheel
+            }
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.fleksy.swipedetector.tool;
+
+import java.util.Arrays;
+
+/**
+ * A TouchSource filled in by hand, for feeding the GestureEngine from tests, benchmarks,
+ * servers or any other platform. Frames are reused: begin() starts a new event, every sample()
+ * then adds one row of positions for every pointer in the same order, the last row being
+ * the current one and the rows before it the history.
+ */
+public final class TouchFrame implements TouchSource {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int action = OTHER;
+    private int actionIndex;
+    private int pointers;
+    private int samples;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private float[] xs = new float[INITIAL_CAPACITY];
+    private float[] ys = new float[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int filled; // Positions added so far in the current row
+
+    /**
+     * Starts a new event.
+     *
+     * @param action      DOWN, MOVE, UP, CANCEL or OTHER
+     * @param actionIndex Index of the pointer that went down or up
+     * @return This frame
+     */
+    public TouchFrame begin(int action, int actionIndex) {
+        this.action = action;
+        this.actionIndex = actionIndex;
+        pointers = 0;
+        samples = 0;
+        filled = 0;
+        return this;
+    }
+
+    /**
+     * Starts a row of samples.
+     *
+     * @param time Time of the samples
+     * @return This frame
+     */
+    public TouchFrame sample(long time) {
+        if (samples > 0 && filled != pointers) {
+            throw new IllegalStateException("Every row needs a position for every pointer");
+        }
+        if (times.length == samples) {
+            times = Arrays.copyOf(times, samples * 2);
+        }
+        times[samples++] = time;
+        filled = 0;
+        return this;
+    }
+
+    /**
+     * Adds the position of the next pointer to the current row. The first row decides which
+     * pointers the event holds.
+     *
+     * @return This frame
+     */
+    public TouchFrame pointer(int id, float x, float y) {
+        if (samples == 0) {
+            throw new IllegalStateException("Positions need a sample");
+        }
+        if (samples == 1) {
+            if (ids.length == pointers) {
+                ids = Arrays.copyOf(ids, pointers * 2);
+            }
+            ids[pointers++] = id;
+        } else if (filled == pointers || ids[filled] != id) {
+            throw new IllegalStateException("Rows must hold the pointers of the first one in order");
+        }
+        final int position = (samples - 1) * pointers + filled;
+        if (xs.length <= position) {
+            xs = Arrays.copyOf(xs, Math.max(position + 1, xs.length * 2));
+            ys = Arrays.copyOf(ys, xs.length);
+        }
+        xs[position] = x;
+        ys[position] = y;
+        filled++;
+        return this;
+    }
+
+    @Override
+    public int getAction() {
+        return action;
+    }
+
+    @Override
+    public int getActionIndex() {
+        return actionIndex;
+    }
+
+    @Override
+    public int getPointerCount() {
+        return pointers;
+    }
+
+    @Override
+    public int getPointerId(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public float getX(int index) {
+        return xs[(samples - 1) * pointers + index];
+    }
+
+    @Override
+    public float getY(int index) {
+        return ys[(samples - 1) * pointers + index];
+    }
+
+    @Override
+    public long getEventTime() {
+        return times[samples - 1];
+    }
+
+    @Override
+    public int getHistorySize() {
+        return samples - 1;
+    }
+
+    @Override
+    public float getHistoricalX(int index, int position) {
+        return xs[position * pointers + index];
+    }
+
+    @Override
+    public float getHistoricalY(int index, int position) {
+        return ys[position * pointers + index];
+    }
+
+    @Override
+    public long getHistoricalEventTime(int position) {
+        return times[position];
+    }
+
+}
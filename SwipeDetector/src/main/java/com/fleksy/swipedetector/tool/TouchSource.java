@@ -0,0 +1,51 @@
+package com.fleksy.swipedetector.tool;
+
+/**
+ * One touch event as the GestureEngine reads it, whatever platform it came from. Mirrors the
+ * parts of Android's MotionEvent the engine needs: the action, every pointer's current sample
+ * and the batched samples that came before it. Pointers are addressed by their index in the
+ * event, samples by their position in the history, oldest first.
+ */
+public interface TouchSource {
+
+    int DOWN = 0;       // The first or a further pointer went down
+    int MOVE = 1;       // Pointers moved
+    int UP = 2;         // The last or another pointer went up
+    int CANCEL = 3;     // Every touch is abandoned
+    int OTHER = 4;      // Anything the engine doesn't handle
+
+    /**
+     * @return DOWN, MOVE, UP, CANCEL or OTHER
+     */
+    int getAction();
+
+    /**
+     * @return Index of the pointer that went down or up
+     */
+    int getActionIndex();
+
+    int getPointerCount();
+
+    int getPointerId(int index);
+
+    float getX(int index);
+
+    float getY(int index);
+
+    /**
+     * @return Time of the current samples in milliseconds, on the clock of the Scheduler
+     */
+    long getEventTime();
+
+    /**
+     * @return Number of samples batched before the current ones
+     */
+    int getHistorySize();
+
+    float getHistoricalX(int index, int position);
+
+    float getHistoricalY(int index, int position);
+
+    long getHistoricalEventTime(int position);
+
+}
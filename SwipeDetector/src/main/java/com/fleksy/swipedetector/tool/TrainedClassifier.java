@@ -0,0 +1,66 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A model trained offline over the GestureFeatures of labelled gestures. Models are held in flat
+ * primitive arrays and written to a small binary format: magic bytes, a version, the number
+ * of features the model was trained with and the arrays of the model itself. Each classifier
+ * reuses its feature vector, so one must not be shared between detectors.
+ */
+public abstract class TrainedClassifier implements PhantomClassifier {
+
+    private final GestureFeatures features = new GestureFeatures();
+
+    @Override
+    public final boolean isPhantom(Gesture swipe, float width, float height) {
+        return score(features.extract(swipe, height)) >= 0;
+    }
+
+    /**
+     * @param features Vector of GestureFeatures.FEATURES values
+     * @return At least 0 for phantom swipes, below 0 for human ones
+     */
+    public abstract float score(float[] features);
+
+    static void writeHeader(DataOutputStream out, byte[] magic, int version) throws IOException {
+        out.write(magic);
+        out.writeByte(version);
+        out.writeByte(GestureFeatures.FEATURES);
+    }
+
+    static void readHeader(DataInputStream in, byte[] magic, int version) throws IOException {
+        for (byte b : magic) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a trained classifier of this type");
+            }
+        }
+        if (in.readByte() != version) {
+            throw new IOException("Unsupported trained classifier version");
+        }
+        if (in.readByte() != GestureFeatures.FEATURES) {
+            throw new IOException("Trained classifier uses other features");
+        }
+    }
+
+    static float[] readFloats(DataInputStream in, int count) throws IOException {
+        final float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readFloat();
+        }
+        return values;
+    }
+
+    static int readCount(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0 || count > (1 << 20)) {
+            throw new IOException("Malformed trained classifier");
+        }
+        return count;
+    }
+
+}
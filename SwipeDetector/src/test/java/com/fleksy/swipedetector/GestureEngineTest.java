@@ -0,0 +1,384 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Bounds;
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.TimerWheel;
+import com.fleksy.swipedetector.tool.TouchFrame;
+import com.fleksy.swipedetector.tool.TouchSource;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GestureEngineTest {
+
+    private final TouchFrame frame = new TouchFrame();
+
+    @Test
+    public void tapsAndSwipesRunWithoutAndroid() throws Exception {
+        final Engine engine = new Engine();
+        down(engine, 0, 300, 300, 1000);
+        up(engine, 0, 301, 300, 1060);
+        assertEquals(1, engine.taps);
+
+        down(engine, 0, 200, 300, 2000);
+        for (int i = 1; i <= 10; i++) {
+            frame.begin(TouchSource.MOVE, 0);
+            for (int h = 0; h < 4; h++) {                   // Batched like an Android move
+                final int step = (i - 1) * 4 + h + 1;
+                frame.sample(2000 + step * 2).pointer(0, 200 + step * 10, 300);
+            }
+            assertTrue(engine.onTouchEvent(frame));
+        }
+        up(engine, 0, 600, 300, 2082);
+        assertEquals(1, engine.taps);
+        assertEquals(1, engine.swipes.size());
+        assertEquals(Direction.RIGHT, engine.swipes.get(0));
+        assertEquals(2, engine.releases);
+
+        frame.begin(TouchSource.OTHER, 0);
+        assertFalse(engine.onTouchEvent(frame));
+    }
+
+    @Test
+    public void predictionsAreResolvedBeforeRefiningInBackground() throws Exception {
+        final Engine engine = new Engine();
+        engine.predicting = true;
+        down(engine, 0, 200, 300, 2000);
+        for (int i = 1; i <= 40; i++) {
+            frame.begin(TouchSource.MOVE, 0).sample(2000 + i * 2).pointer(0, 200 + i * 10, 300);
+            engine.onTouchEvent(frame);
+        }
+        assertEquals(Direction.RIGHT, engine.predicted);
+
+        engine.background = true;                           // Enabled while the swipe is drawn
+        up(engine, 0, 610, 300, 2082);
+        engine.stopBackgroundRefining();
+        assertEquals(Direction.RIGHT, engine.retracted);
+        assertTrue("Retracted on the input thread", engine.retractedOn == Thread.currentThread());
+        assertEquals(1, engine.swipes.size());
+    }
+
+    @Test
+    public void holdsFollowTheEventTimes() throws Exception {
+        final Engine engine = new Engine();
+        engine.holding = true;
+        down(engine, 0, 300, 300, 5000);
+        frame.begin(TouchSource.MOVE, 0).sample(5050).pointer(0, 300, 300);
+        engine.onTouchEvent(frame);
+        assertEquals(0, engine.holds);
+        frame.begin(TouchSource.MOVE, 0).sample(5500).pointer(0, 301, 300);
+        engine.onTouchEvent(frame);
+        assertEquals(1, engine.holds);
+        up(engine, 0, 301, 300, 5600);
+        assertEquals(1, engine.processedHolds);
+        assertEquals(0, engine.taps);
+    }
+
+    @Test
+    public void areasAreFoundByTheirBounds() throws Exception {
+        final Engine engine = new Engine();
+        final Bounds key = new Bounds(100, 100, 200, 200);
+        engine.areas = new Bounds[]{new Bounds(0, 0, 50, 50), key};
+        engine.special = new Bounds[]{new Bounds(150, 150, 250, 250)};
+        down(engine, 0, 160, 160, 0);
+        assertTrue(engine.inAnArea());
+        assertTrue(engine.isInArea(new Bounds(100, 100, 200, 200)));
+        assertTrue(engine.inSpecialArea());
+        assertEquals(engine.special[0], engine.getSpecialBounds());
+        frame.begin(TouchSource.MOVE, 0).sample(10).pointer(0, 300, 160);
+        engine.onTouchEvent(frame);
+        assertEquals(Direction.RIGHT, engine.specialDir);
+        frame.begin(TouchSource.CANCEL, 0);
+        engine.onTouchEvent(frame);
+        assertFalse(engine.inAnArea());
+        assertFalse(engine.inSpecialArea());
+    }
+
+    private void down(Engine engine, int id, float x, float y, long time) {
+        frame.begin(TouchSource.DOWN, 0).sample(time).pointer(id, x, y);
+        assertTrue(engine.onTouchEvent(frame));
+    }
+
+    private void up(Engine engine, int id, float x, float y, long time) {
+        frame.begin(TouchSource.UP, 0).sample(time).pointer(id, x, y);
+        assertTrue(engine.onTouchEvent(frame));
+    }
+
+    /**
+     * Counts what the engine decided, with holds and double taps timed by a TimerWheel.
+     */
+    private static final class Engine extends GestureEngine {
+
+        final List<Direction> swipes = new ArrayList<>();
+        Bounds[] areas = new Bounds[0];
+        Bounds[] special = new Bounds[0];
+        boolean holding;
+        boolean predicting;
+        boolean background;
+        Direction predicted;
+        Direction retracted;
+        Thread retractedOn;
+        Direction specialDir = Direction.UNDEFINED;
+        int taps;
+        int holds;
+        int processedHolds;
+        int releases;
+
+        Engine() {
+            super(3.0f, new TimerWheel());
+            updateDimensions(1080, 600);
+        }
+
+        @Override
+        protected boolean predicting() {
+            return predicting;
+        }
+
+        @Override
+        protected boolean refiningInBackground() {
+            return background;
+        }
+
+        @Override
+        protected void onPredictedSwipe(Gesture swipe, Direction direction) {
+            predicted = direction;
+        }
+
+        @Override
+        protected void onRetractedSwipe(Gesture touch, Direction direction) {
+            retracted = direction;
+            retractedOn = Thread.currentThread();
+        }
+
+        @Override
+        protected int getTimeLimit(Gesture touch) {
+            return 0;
+        }
+
+        @Override
+        protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+            return false;
+        }
+
+        @Override
+        protected boolean onCheckedTap(Gesture tap) {
+            taps++;
+            return true;
+        }
+
+        @Override
+        protected boolean onPhantomSwipe(Gesture phantom) {
+            return true;
+        }
+
+        @Override
+        protected boolean onDetectedSwipe(Gesture swipe) {
+            swipes.add(swipe.getDirection());
+            return true;
+        }
+
+        @Override
+        protected float getMinSwipeLength() {
+            return 0;
+        }
+
+        @Override
+        protected void onFreedom(Gesture touch) {
+        }
+
+        @Override
+        protected void onLiberate(Gesture touch) {
+        }
+
+        @Override
+        protected Object createTag(float rawX, float rawY, float x, float y) {
+            return null;
+        }
+
+        @Override
+        protected float xOffset() {
+            return 0;
+        }
+
+        @Override
+        protected float yOffset() {
+            return 0;
+        }
+
+        @Override
+        protected float swipeFactor() {
+            return 1;
+        }
+
+        @Override
+        protected boolean invertHorizontalSwipes() {
+            return false;
+        }
+
+        @Override
+        protected void onReset() {
+        }
+
+        @Override
+        protected void onHold(Gesture touch) {
+            holds++;
+        }
+
+        @Override
+        protected long holdDelay(Gesture touch) {
+            return 300;
+        }
+
+        @Override
+        protected Gesture onPreHold(Gesture touch) {
+            return touch;
+        }
+
+        @Override
+        protected long preHoldDelay(Gesture touch) {
+            return 100;
+        }
+
+        @Override
+        protected long postHoldDelay(Gesture touch) {
+            return 100;
+        }
+
+        @Override
+        protected long doubleTapDelay(Gesture touch) {
+            return 200;
+        }
+
+        @Override
+        protected boolean canHold(Gesture touch) {
+            return holding;
+        }
+
+        @Override
+        protected boolean repeatHold(Gesture touch) {
+            return false;
+        }
+
+        @Override
+        protected boolean onProcessHold(Gesture touch) {
+            processedHolds++;
+            return true;
+        }
+
+        @Override
+        protected boolean canSpecialize(Gesture touch) {
+            return true;
+        }
+
+        @Override
+        protected boolean canBeInAnArea(Gesture touch) {
+            return true;
+        }
+
+        @Override
+        protected Object getDoubleTapObj(Gesture touch) {
+            return null;
+        }
+
+        @Override
+        protected Gesture onTap(Gesture touch) {
+            return touch;
+        }
+
+        @Override
+        protected Gesture onDoubleTap(Gesture touch) {
+            return touch;
+        }
+
+        @Override
+        protected Gesture onRelease(Gesture touch) {
+            releases++;
+            return touch;
+        }
+
+        @Override
+        protected Bounds[] getSpecialAreaBounds() {
+            return special;
+        }
+
+        @Override
+        protected Bounds[] getAreaBounds() {
+            return areas;
+        }
+
+        @Override
+        protected long getSpecialDelay(Bounds area) {
+            return 0;
+        }
+
+        @Override
+        protected boolean onSpecialHold(Bounds area) {
+            return false;
+        }
+
+        @Override
+        protected Gesture onHeldDrag(Gesture touch, float rawX, float rawY) {
+            return touch;
+        }
+
+        @Override
+        protected void onSpecialArea(Gesture touch, Bounds area) {
+        }
+
+        @Override
+        protected boolean inSpecialHold(Gesture touch, Bounds area, Direction dir) {
+            return false;
+        }
+
+        @Override
+        protected boolean onSpecialDrag(Gesture touch, Bounds area, float delta, Direction dir) {
+            specialDir = dir;
+            return true;
+        }
+
+        @Override
+        protected boolean onProcessSpecial(Gesture touch, Bounds area, Direction dir, boolean wasHeld) {
+            return false;
+        }
+
+        @Override
+        protected boolean canMultiTouch(Gesture touch) {
+            return false;
+        }
+
+        @Override
+        protected boolean onMultiTouch(Gesture[] touches) {
+            return false;
+        }
+
+        @Override
+        protected void preprocess() {
+        }
+
+        @Override
+        protected void onProcessTouch(Gesture touch) {
+        }
+
+        @Override
+        public void hardReset() {
+        }
+
+        @Override
+        protected int maxMultiTouch() {
+            return 1;
+        }
+
+        @Override
+        protected boolean multiTouchDirectionEnabled(Direction dir) {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class RefineryWorkerTest {
+
+    private static final int CORPUS = 3000;
+
+    @Test
+    public void resultsMatchRefiningInPlace() throws Exception {
+        final OfflineDetector inPlace = new OfflineDetector(3.0f, 1080, 400);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < CORPUS; i++) {
+            expected.add(describe(inPlace.refinery(SwipeDetectorFastMathTest.corpusGesture(i), 1.0f, false)));
+        }
+
+        final OfflineDetector background = new OfflineDetector(3.0f, 1080, 400);
+        final RefineryWorker worker = new RefineryWorker(new RefineryWorker.Refiner() {
+            @Override
+            public List<Gesture> refine(Gesture touch) {
+                return background.refinery(touch, 1.0f, false);
+            }
+
+            @Override
+            public void onRefined() {
+            }
+        }, 8);
+        final List<String> delivered = new ArrayList<>();
+        for (int i = 0; i < CORPUS; i++) {
+            final Gesture touch = SwipeDetectorFastMathTest.corpusGesture(i);
+            if (!worker.submit(touch)) {
+                worker.awaitIdle();
+                drain(worker, delivered);
+                assertEquals(true, worker.submit(touch));
+            }
+            if (i % 5 == 0) {
+                drain(worker, delivered);
+            }
+        }
+        worker.awaitIdle();
+        drain(worker, delivered);
+        worker.shutdown();
+        assertEquals(expected, delivered);
+    }
+
+    @Test
+    public void failuresAreRethrownInOrder() throws Exception {
+        final RuntimeException failure = new IllegalStateException("refinery failed");
+        final RefineryWorker worker = new RefineryWorker(new RefineryWorker.Refiner() {
+            @Override
+            public List<Gesture> refine(Gesture touch) {
+                if (touch.getId() == 1) {
+                    throw failure;
+                }
+                final List<Gesture> result = new ArrayList<>();
+                result.add(touch);
+                return result;
+            }
+
+            @Override
+            public void onRefined() {
+            }
+        }, 4);
+        for (int id = 0; id < 3; id++) {
+            worker.submit(new Gesture(null, id, 0, 0, 0, null));
+        }
+        worker.awaitIdle();
+        assertEquals(0, worker.poll().get(0).getId());
+        try {
+            worker.poll();
+            fail("Expected the refinery's failure");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertEquals(2, worker.poll().get(0).getId());
+        worker.shutdown();
+    }
+
+    private static void drain(RefineryWorker worker, List<String> delivered) {
+        List<Gesture> refined;
+        while ((refined = worker.poll()) != null) {
+            delivered.add(describe(refined));
+        }
+    }
+
+    private static String describe(List<Gesture> refined) {
+        final StringBuilder out = new StringBuilder();
+        for (Gesture touch : refined) {
+            final Direction direction = touch.getDirection();
+            out.append(direction).append(touch.isPhantom() ? "*" : "")
+                    .append('@').append(touch.getDownX()).append(',').append(touch.getDownY()).append(' ');
+        }
+        return out.toString();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeDetectorEarlyExitTest {
+
+    private static final int CORPUS = 20000;
+
+    @Test
+    public void phantomDecisionsAreIdentical() throws Exception {
+        assertIdentical(false);
+    }
+
+    @Test
+    public void decimatedPhantomDecisionsAreIdentical() throws Exception {
+        assertIdentical(true);
+    }
+
+    private static void assertIdentical(boolean decimate) {
+        final Detector full = new Detector(false, decimate);
+        final Detector early = new Detector(true, decimate);
+        int exits = 0;
+        for (int i = 0; i < CORPUS; i++) {
+            final Gesture gesture = SwipeDetectorFastMathTest.corpusGesture(i);
+            final boolean expected = full.check(gesture).isPhantom();
+            assertEquals("Gesture " + i, expected, early.check(gesture).isPhantom());
+            if (early.exitedEarly()) {
+                assertTrue("Exits only label phantoms", expected);
+                assertTrue(early.getRawOutput().contains("EARLY EXIT"));
+                exits++;
+            }
+        }
+        assertTrue("Corpus should exit early", exits > 0);
+    }
+
+    private static final class Detector extends SwipeDetector {
+
+        private final boolean early;
+        private final boolean decimate;
+
+        Detector(boolean early, boolean decimate) {
+            super(3.0f);
+            this.early = early;
+            this.decimate = decimate;
+            updateDimensions(1080, 400);
+        }
+
+        @Override
+        protected boolean exitingEarly() {
+            return early;
+        }
+
+        @Override
+        protected boolean decimating() {
+            return decimate;
+        }
+
+        @Override
+        protected boolean tracing() {
+            return true;
+        }
+    }
+
+}
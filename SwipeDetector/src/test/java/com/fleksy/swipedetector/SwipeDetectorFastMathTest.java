@@ -0,0 +1,80 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeDetectorFastMathTest {
+
+    private static final int CORPUS = 20000;
+
+    @Test
+    public void phantomDecisionsAreIdentical() throws Exception {
+        final Detector precise = new Detector(false);
+        final Detector fast = new Detector(true);
+        int phantoms = 0;
+        for (int i = 0; i < CORPUS; i++) {
+            final boolean expected = precise.check(corpusGesture(i)).isPhantom();
+            assertEquals("Gesture " + i, expected, fast.check(corpusGesture(i)).isPhantom());
+            phantoms += expected ? 1 : 0;
+        }
+        assertTrue("Corpus should hold phantoms", phantoms > 0);
+        assertTrue("Corpus should hold human swipes", phantoms < CORPUS);
+    }
+
+    /**
+     * Random walks ranging from smooth to erratic, with occasional jumps and rounded
+     * coordinates that produce perfectly straight runs.
+     */
+    static Gesture corpusGesture(int seed) {
+        final Random random = new Random(seed);
+        final int points = 2 + random.nextInt(random.nextBoolean() ? 8 : 60);
+        float x = 100 + random.nextFloat() * 880;
+        float y = 50 + random.nextFloat() * 300;
+        long time = 0;
+        final Gesture gesture = new Gesture(null, 0, x, y, time, null);
+        double angle = random.nextDouble() * Math.PI * 2;
+        double step = 1 + random.nextDouble() * (random.nextInt(5) == 0 ? 80 : 15);
+        final int style = random.nextInt(4);
+        for (int i = 1; i < points; i++) {
+            if (style == 0) {
+                angle += random.nextGaussian() * 0.2;
+            } else if (style == 1) {
+                angle += random.nextGaussian() * 1.5;
+            } else if (style == 3 && random.nextInt(6) == 0) {
+                step *= 3;
+            }
+            x += (float) (Math.cos(angle) * step);
+            y += (float) (Math.sin(angle) * step);
+            time += 8;
+            if (random.nextInt(10) == 0) {
+                x = Math.round(x);
+                y = Math.round(y);
+            }
+            gesture.addPoint(i == points - 1 ? Gesture.TAIL : Gesture.BODY, x, y, time);
+        }
+        return gesture;
+    }
+
+    private static final class Detector extends SwipeDetector {
+
+        private final boolean fast;
+
+        Detector(boolean fast) {
+            super(3.0f);
+            this.fast = fast;
+            updateDimensions(1080, 400);
+        }
+
+        @Override
+        protected boolean fastMath() {
+            return fast;
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeDetectorStreamingTest {
+
+    private static final int CORPUS = 5000;
+    private static final int RETAINED_HEAD = 2;
+    private static final int RETAINED_RECENT = 8;
+
+    @Test
+    public void streamedChecksMatchImmediateChecks() throws Exception {
+        for (int early = 0; early < 2; early++) {
+            final Detector immediate = new Detector(false, early > 0);
+            final Detector streamed = new Detector(true, early > 0);
+            final Random batches = new Random(early);
+            int phantoms = 0;
+            for (int i = 0; i < CORPUS; i++) {
+                final boolean expected = immediate.check(SwipeDetectorFastMathTest.corpusGesture(i)).isPhantom();
+                final Gesture drawn = streamed.draw(SwipeDetectorFastMathTest.corpusGesture(i), 1 + batches.nextInt(4));
+                assertEquals("Gesture " + i, expected, streamed.check(drawn).isPhantom());
+                phantoms += expected ? 1 : 0;
+            }
+            assertTrue("Corpus should hold phantoms", phantoms > 0);
+            assertTrue("Corpus should hold human swipes", phantoms < CORPUS);
+        }
+    }
+
+    @Test
+    public void retainedGesturesMatchImmediateChecks() throws Exception {
+        final Detector immediate = new Detector(false, false);
+        final Detector streamed = new Detector(true, false);
+        immediate.tracing = true;
+        streamed.tracing = true;
+        final Random batches = new Random(CORPUS);
+        int dropping = 0;
+        for (int i = 0; i < CORPUS; i++) {
+            final int batch = 1 + batches.nextInt(4);
+            final Gesture expected = immediate.draw(SwipeDetectorFastMathTest.corpusGesture(i), batch, true);
+            final Gesture drawn = streamed.draw(SwipeDetectorFastMathTest.corpusGesture(i), batch, true);
+            assertEquals("Gesture " + i, immediate.check(expected).isPhantom(), streamed.check(drawn).isPhantom());
+            assertEquals("Gesture " + i, immediate.getRawOutput(), streamed.getRawOutput());
+            dropping += drawn.getDroppedCount() > 0 ? 1 : 0;
+        }
+        assertTrue("Corpus should hold gestures dropping points", dropping > 0);
+    }
+
+    @Test
+    public void interleavedStreamsKeepTheirOwnTranscripts() throws Exception {
+        final Detector immediate = new Detector(false, false);
+        final Detector streamed = new Detector(true, false);
+        immediate.tracing = true;
+        streamed.tracing = true;
+        for (int i = 0; i < 200; i += 2) {
+            final Gesture first = SwipeDetectorFastMathTest.corpusGesture(i);
+            final Gesture second = SwipeDetectorFastMathTest.corpusGesture(i + 1);
+            final Gesture[] drawn = {
+                    new Gesture(null, 0, first.getXAt(0), first.getYAt(0), first.getTimeAt(0), null),
+                    new Gesture(null, 1, second.getXAt(0), second.getYAt(0), second.getTimeAt(0), null)
+            };
+            final Gesture[] recorded = {first, second};
+            for (int p = 1; p < Math.max(first.getPointCount(), second.getPointCount()); p++) {
+                for (int g = 0; g < 2; g++) {                   // Two fingers moving at once
+                    if (p < recorded[g].getPointCount()) {
+                        drawn[g].addPoint(recorded[g].getStateAt(p), recorded[g].getXAt(p), recorded[g].getYAt(p), recorded[g].getTimeAt(p));
+                        if (p < recorded[g].getPointCount() - 1) {
+                            streamed.streamPoints(drawn[g]);    // Not the release
+                        }
+                    }
+                }
+            }
+            for (int g = 0; g < 2; g++) {
+                immediate.check(SwipeDetectorFastMathTest.corpusGesture(i + g));
+                streamed.check(drawn[g]);
+                assertEquals("Gesture " + (i + g), immediate.getRawOutput(), streamed.getRawOutput());
+            }
+        }
+    }
+
+    static class Detector extends SwipeDetector {
+
+        private final boolean streaming;
+        private final boolean early;
+        boolean tracing;
+
+        Detector(boolean streaming, boolean early) {
+            super(3.0f);
+            this.streaming = streaming;
+            this.early = early;
+            updateDimensions(1080, 400);
+        }
+
+        /**
+         * Redraws a recorded gesture, streaming it every few points as moves would.
+         */
+        Gesture draw(Gesture recorded, int batch) {
+            return draw(recorded, batch, false);
+        }
+
+        /**
+         * @param retaining True to start bounding the points kept halfway through, as holds do
+         */
+        Gesture draw(Gesture recorded, int batch, boolean retaining) {
+            final Gesture drawn = new Gesture(null, 0, recorded.getXAt(0), recorded.getYAt(0), recorded.getTimeAt(0), null);
+            final int last = recorded.getPointCount() - 1;
+            for (int p = 1; p < last; p++) {
+                if (retaining && p == last / 2) {
+                    drawn.setRetention(RETAINED_HEAD, RETAINED_RECENT);
+                }
+                drawn.addPoint(recorded.getStateAt(p), recorded.getXAt(p), recorded.getYAt(p), recorded.getTimeAt(p));
+                if (p % batch == 0) {
+                    streamPoints(drawn);
+                }
+            }
+            if (last > 0) {
+                drawn.addPoint(recorded.getStateAt(last), recorded.getXAt(last), recorded.getYAt(last), recorded.getTimeAt(last));
+            }
+            return drawn;
+        }
+
+        @Override
+        protected boolean streaming() {
+            return streaming;
+        }
+
+        @Override
+        protected boolean exitingEarly() {
+            return early;
+        }
+
+        @Override
+        protected boolean tracing() {
+            return tracing;
+        }
+    }
+
+}
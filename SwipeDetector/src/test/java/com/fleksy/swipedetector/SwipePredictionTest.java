@@ -0,0 +1,85 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.Calculator;
+import com.fleksy.swipedetector.tool.GestureMetrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipePredictionTest {
+
+    private static final int CORPUS = 5000;
+
+    @Test
+    public void predictionsAreConfirmedOrRetractedOnce() throws Exception {
+        final OfflineDetector plain = new OfflineDetector(3.0f, 1080, 400);
+        final Predictor predictor = new Predictor();
+        int confirmed = 0;
+        for (int i = 0; i < CORPUS; i++) {
+            final Gesture recorded = SwipeDetectorFastMathTest.corpusGesture(i);
+            final Gesture drawn = new Gesture(null, 0, recorded.getXAt(0), recorded.getYAt(0), 0, null);
+            predictor.predicted = Direction.UNDEFINED;
+            predictor.retracted = Direction.UNDEFINED;
+            for (int p = 1; p < recorded.getPointCount(); p++) {
+                drawn.addPoint(recorded.getStateAt(p), recorded.getXAt(p), recorded.getYAt(p), recorded.getTimeAt(p));
+                predictor.streamPoints(drawn);
+                predictor.predict(drawn, 1.0f, false);
+            }
+            assertEquals(predictor.predicted, drawn.getPrediction());
+
+            final Classification expected = plain.classify(recorded);
+            assertEquals("Gesture " + i, expected, predictor.classify(drawn));
+            predictor.closeStream(drawn);
+            if (predictor.predicted == Direction.UNDEFINED) {
+                assertEquals(Direction.UNDEFINED, predictor.retracted);
+            } else if (expected == Classification.SWIPE && predictor.predicted
+                    == Calculator.getDirection(recorded.getDeltaX(), recorded.getDeltaY(), false)) {
+                assertEquals("Confirmed gesture " + i, Direction.UNDEFINED, predictor.retracted);
+                confirmed++;
+            } else {
+                assertEquals("Retracted gesture " + i, predictor.predicted, predictor.retracted);
+            }
+        }
+        assertTrue("Corpus should confirm predictions", confirmed > 0);
+        final GestureMetrics metrics = predictor.getMetrics();
+        assertEquals(confirmed, metrics.getCount(GestureMetrics.PREDICTIONS) - metrics.getCount(GestureMetrics.RETRACTIONS));
+    }
+
+    private static final class Predictor extends OfflineDetector {
+
+        Direction predicted;
+        Direction retracted;
+
+        Predictor() {
+            super(3.0f, 1080, 400);
+        }
+
+        @Override
+        protected boolean predicting() {
+            return true;
+        }
+
+        @Override
+        protected boolean measuring() {
+            return true;
+        }
+
+        @Override
+        protected void onPredictedSwipe(Gesture swipe, Direction direction) {
+            assertEquals(Direction.UNDEFINED, predicted);
+            predicted = direction;
+        }
+
+        @Override
+        protected void onRetractedSwipe(Gesture touch, Direction direction) {
+            assertEquals(Direction.UNDEFINED, retracted);
+            retracted = direction;
+        }
+    }
+
+}
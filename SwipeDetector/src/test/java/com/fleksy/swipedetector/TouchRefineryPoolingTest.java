@@ -0,0 +1,121 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TouchRefineryPoolingTest {
+
+    private static final int WARM_UP = 2000;
+    private static final int MEASURED = 2000;
+
+    @Test
+    public void recycledGesturesAreReused() throws Exception {
+        final Refinery refinery = new Refinery(true);
+        final Gesture first = refinery.obtainGesture(null, 0, 10, 10, 0, null);
+        refinery.recycle(first);
+        assertNotSame(first, refinery.obtainGesture(null, 0, 10, 10, 0, null));
+        refinery.recycleGestures();
+        final Gesture second = refinery.obtainGesture(null, 1, 20, 30, 5, null);
+        assertSame(first, second);
+        assertEquals(1, second.getId());
+        assertEquals(1, second.getPointCount());
+        assertEquals(20, second.getDownX(), 0);
+        assertEquals(30, second.getDownY(), 0);
+    }
+
+    @Test
+    public void steadyStateTypingDoesNotAllocate() throws Exception {
+        final Refinery refinery = new Refinery(true);
+        for (int i = 0; i < WARM_UP; i++) {
+            type(refinery, i);
+        }
+        final long before = allocatedBytes();
+        for (int i = 0; i < MEASURED; i++) {
+            type(refinery, i);
+        }
+        final long allocated = allocatedBytes() - before;
+        assertEquals("Bytes allocated per gesture", 0, allocated / MEASURED);
+    }
+
+    /**
+     * Simulates a tap or a swipe going from down to release, then recycles what was delivered.
+     */
+    private static void type(final Refinery refinery, final int i) {
+        final long time = i * 100L;
+        final Gesture touch = refinery.obtainGesture(null, 0, 100, 100, time, null);
+        final int points = (i % 2 == 0) ? 2 : 20;
+        for (int p = 1; p < points; p++) {
+            touch.addPoint(p == points - 1 ? Gesture.TAIL : Gesture.BODY,
+                    100 + p * 12 + (p % 3), 100 + p * 2, time + p * 8);
+        }
+        final List<Gesture> delivered = refinery.refinery(touch, 1.0f, false);
+        for (int d = 0; d < delivered.size(); d++) {
+            delivered.get(d).process();
+            refinery.recycle(delivered.get(d));
+        }
+        refinery.recycleList(delivered);
+        refinery.recycleGestures();
+    }
+
+    private static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static final class Refinery extends TouchRefinery {
+
+        private final boolean pooling;
+
+        Refinery(boolean pooling) {
+            super(3.0f);
+            this.pooling = pooling;
+            updateDimensions(1080, 600);
+        }
+
+        @Override
+        protected boolean pooling() {
+            return pooling;
+        }
+
+        @Override
+        protected int getTimeLimit(Gesture touch) {
+            return 0;
+        }
+
+        @Override
+        protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+            return false;
+        }
+
+        @Override
+        protected boolean onCheckedTap(Gesture tap) {
+            return false;
+        }
+
+        @Override
+        protected boolean onPhantomSwipe(Gesture phantom) {
+            return true;
+        }
+
+        @Override
+        protected boolean onDetectedSwipe(Gesture swipe) {
+            return false;
+        }
+
+        @Override
+        protected float getMinSwipeLength() {
+            return 0;
+        }
+    }
+
+}
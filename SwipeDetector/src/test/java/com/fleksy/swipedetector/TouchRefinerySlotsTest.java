@@ -0,0 +1,112 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TouchRefinerySlotsTest {
+
+    @Test
+    public void pointersKeepTheirOwnSlotsWhenFree() throws Exception {
+        final Refinery refinery = new Refinery();
+        final Gesture first = touch(refinery, 0);
+        final Gesture third = touch(refinery, 2);
+        assertSame(first, refinery.getTouches()[0]);
+        assertSame(third, refinery.getTouches()[2]);
+        assertSame(third, refinery.getLatestTouch());
+        assertEquals(2, refinery.getTouchCount());
+        assertTrue(refinery.ignoreEvent(1));
+
+        refinery.setTouchAt(2, null);
+        assertSame(first, refinery.getLatestTouch());
+        assertEquals(1, refinery.getTouchCount());
+        assertNull(refinery.getTouchAt(2));
+    }
+
+    @Test
+    public void largePointerIdsTakeFreeSlotsUntilFull() throws Exception {
+        final Refinery refinery = new SmallRefinery(3);
+        final Gesture large = touch(refinery, 1000);
+        final Gesture mapped = touch(refinery, 40);
+        final Gesture own = touch(refinery, 2);
+        assertSame(large, refinery.getTouchAt(1000));
+        assertSame(mapped, refinery.getTouchAt(40));
+        assertSame(own, refinery.getTouchAt(2));
+        assertSame(own, refinery.getTouches()[2]);
+        assertEquals(3, refinery.getTouchCount());
+
+        touch(refinery, 5);
+        assertTrue(refinery.ignoreEvent(5));
+        assertEquals(3, refinery.getTouchCount());
+
+        refinery.clearTouches();
+        assertEquals(0, refinery.getTouchCount());
+        assertNull(refinery.getLatestTouch());
+        assertNull(refinery.getTouchAt(40));
+        assertSame(touch(refinery, 5), refinery.getTouchAt(5));
+    }
+
+    private static Gesture touch(Refinery refinery, int pointerId) {
+        final Gesture touch = new Gesture(null, pointerId, 0, 0, 0, null);
+        refinery.setTouchAt(pointerId, touch);
+        return touch;
+    }
+
+    private static final class SmallRefinery extends Refinery {
+
+        private final int maxPointers;
+
+        SmallRefinery(int maxPointers) {
+            this.maxPointers = maxPointers;                  // Set after the refinery is constructed
+        }
+
+        @Override
+        protected int getMaxPointers() {
+            return maxPointers;
+        }
+    }
+
+    private static class Refinery extends TouchRefinery {
+
+        Refinery() {
+            super(3.0f);
+        }
+
+        @Override
+        protected int getTimeLimit(Gesture touch) {
+            return 0;
+        }
+
+        @Override
+        protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+            return false;
+        }
+
+        @Override
+        protected boolean onCheckedTap(Gesture tap) {
+            return false;
+        }
+
+        @Override
+        protected boolean onPhantomSwipe(Gesture phantom) {
+            return true;
+        }
+
+        @Override
+        protected boolean onDetectedSwipe(Gesture swipe) {
+            return false;
+        }
+
+        @Override
+        protected float getMinSwipeLength() {
+            return 0;
+        }
+    }
+
+}
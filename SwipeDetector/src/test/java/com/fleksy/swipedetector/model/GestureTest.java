@@ -0,0 +1,298 @@
+package com.fleksy.swipedetector.model;
+
+import com.fleksy.swipedetector.tool.Calculator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GestureTest {
+
+    @Test
+    public void decimationIsBounded() throws Exception {
+        final Random random = new Random(7);
+        final Gesture into = new Gesture(null, 0, 0, 0, 0, null);
+        for (int run = 0; run < 200; run++) {
+            final Gesture swipe = walk(random, 10 + random.nextInt(4000), 0.5f + random.nextFloat() * 4);
+            final int maxPoints = 3 + random.nextInt(100);
+            swipe.decimate(into, random.nextFloat() * 20, maxPoints);
+            assertTrue(into.getPointCount() <= maxPoints);
+            assertEquals(swipe.getDownX(), into.getDownX(), 0);
+            assertEquals(swipe.getDownY(), into.getDownY(), 0);
+            assertEquals(swipe.getUpX(), into.getUpX(), 0);
+            assertEquals(swipe.getUpY(), into.getUpY(), 0);
+            assertEquals(swipe.getTimeTaken(), into.getTimeTaken());
+            assertEquals(Gesture.TAIL, into.getStateAt(into.getPointCount() - 1));
+        }
+    }
+
+    @Test
+    public void decimationKeepsWidelySpacedPaths() throws Exception {
+        final Gesture swipe = walk(new Random(3), 40, 12);
+        final Gesture into = swipe.decimate(new Gesture(null, 0, 0, 0, 0, null), 10, 64);
+        assertEquals(swipe.getPointCount(), into.getPointCount());
+        for (int i = 0; i < swipe.getPointCount(); i++) {
+            assertEquals(swipe.getXAt(i), into.getXAt(i), 0);
+            assertEquals(swipe.getYAt(i), into.getYAt(i), 0);
+            assertEquals(swipe.getTimeAt(i), into.getTimeAt(i));
+        }
+    }
+
+    @Test
+    public void childrenKeepTheirOrderWhenMoved() throws Exception {
+        final Gesture root = new Gesture(null, 0, 0, 0, 0, null);
+        final Gesture first = new Gesture(null, 1, 0, 0, 0, root);
+        final Gesture second = new Gesture(null, 2, 0, 0, 0, root);
+        final Gesture third = new Gesture(null, 3, 0, 0, 0, root);
+        final Gesture grandchild = new Gesture(null, 4, 0, 0, 0, third);
+        assertEquals(3, root.getChildCount());
+        assertSame(third, root.getLiberator());
+        assertSame(root, grandchild.getRoot());
+
+        second.setParent(null);
+        assertEquals(2, root.getChildCount());
+        assertSame(first, root.getFirstChild());
+        assertSame(third, first.getNextSibling());
+        assertNull(third.getNextSibling());
+
+        final Gesture adopter = new Gesture(null, 5, 0, 0, 0, null);
+        adopter.haveChild(second);
+        adopter.adoptChildrenFrom(root);
+        assertEquals(0, root.getChildCount());
+        assertEquals(3, adopter.getChildCount());
+        assertSame(adopter, third.getParent());
+        assertEquals(Arrays.asList(second, first, third), adopter.getChildren());
+
+        final List<Gesture> abandoned = adopter.abandonChildren(new ArrayList<Gesture>());
+        assertEquals(Arrays.asList(second, first, third), abandoned);
+        assertTrue(first.orphaned());
+        assertFalse(adopter.hasChildren());
+        assertSame(grandchild, third.getLiberator());
+    }
+
+    @Test
+    public void retentionKeepsHeadAndRecentPoints() throws Exception {
+        final Random random = new Random(9);
+        final Gesture full = walk(random, 5000, 3);
+        final Gesture held = new Gesture(null, 0, full.getXAt(0), full.getYAt(0), 0, null);
+        for (int i = 1; i < full.getPointCount(); i++) {
+            if (i == 50) {
+                held.setRetention(4, 32);
+            }
+            if (i == 3000) {
+                held.setRetention(8, 64);                           // Changed after wrapping
+            }
+            held.addPoint(full.getStateAt(i), full.getXAt(i), full.getYAt(i), full.getTimeAt(i));
+        }
+        assertEquals(8 + 64, held.getPointCount());
+        assertEquals(full.getPointCount() - held.getPointCount(), held.getDroppedCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(full.getXAt(i), held.getXAt(i), 0);
+        }
+        final int offset = full.getPointCount() - held.getPointCount();
+        for (int i = 8; i < held.getPointCount(); i++) {
+            assertEquals(full.getXAt(offset + i), held.getXAt(i), 0);
+            assertEquals(full.getYAt(offset + i), held.getYAt(i), 0);
+            assertEquals(full.getTimeAt(offset + i), held.getTimeAt(i));
+        }
+        assertEquals(full.getUpX(), held.getUpX(), 0);
+        assertEquals(full.getReleaseTime(), held.getReleaseTime());
+        assertEquals(full.getPathLength(), held.getPathLength(), 0);
+        assertEquals(full.getMinX(), held.getMinX(), 0);
+        assertEquals(full.getMaxY(), held.getMaxY(), 0);
+        final int furthest = Calculator.findFurthestPoint(full, true);
+        assertEquals(full.getXAt(furthest), held.getFurthestX(), 0);
+        assertEquals(full.getYAt(furthest), held.getFurthestY(), 0);
+    }
+
+    @Test
+    public void stationaryHoldsEndAtTheirLastPoint() throws Exception {
+        final Gesture full = new Gesture(null, 0, 300, 200, 1000, null);
+        final Gesture held = new Gesture(null, 0, 300, 200, 1000, null);
+        held.setRetention(2, 8);
+        for (int i = 1; i < 100; i++) {
+            full.addPoint(Gesture.BODY, 300, 200, 1000 + i * 8);
+            held.addPoint(Gesture.BODY, 300, 200, 1000 + i * 8);
+        }
+        assertTrue(held.getDroppedCount() > 0);
+        final int furthest = Calculator.findFurthestPoint(full, true);
+        assertEquals(full.getPointCount() - 1, furthest);
+        assertEquals(full.getXAt(furthest), held.getFurthestX(), 0);
+        assertEquals(full.getYAt(furthest), held.getFurthestY(), 0);
+        assertEquals(full.getTimeAt(furthest), held.getFurthestTime());
+        assertEquals(full.getFurthestTime(), held.getFurthestTime());
+
+        held.addPoint(Gesture.BODY, 301, 200, 2000);         // Moved away, then back
+        held.addPoint(Gesture.BODY, 300, 200, 2008);
+        assertEquals(301, held.getFurthestX(), 0);
+        assertEquals(2000, held.getFurthestTime());
+    }
+
+    @Test
+    public void batchesMatchSinglePoints() throws Exception {
+        final Gesture full = walk(new Random(11), 300, 5);
+        for (int retained = 0; retained < 2; retained++) {
+            final Gesture batched = new Gesture(null, 0, full.getXAt(0), full.getYAt(0), 0, null);
+            final Gesture single = new Gesture(null, 0, full.getXAt(0), full.getYAt(0), 0, null);
+            if (retained > 0) {
+                batched.setRetention(4, 32);
+                single.setRetention(4, 32);
+            }
+            final float[] x = new float[8];
+            final float[] y = new float[8];
+            final long[] time = new long[8];
+            for (int i = 1; i < full.getPointCount(); i += 7) {
+                final int count = Math.min(7, full.getPointCount() - i);
+                for (int j = 0; j < count; j++) {
+                    x[j] = full.getXAt(i + j) - 30;
+                    y[j] = full.getYAt(i + j) + 40;
+                    time[j] = full.getTimeAt(i + j);
+                    single.addPoint(Gesture.BODY, x[j] + 30, y[j] - 40, time[j]);
+                }
+                batched.addPoints(Gesture.BODY, x, y, time, count, 30, -40);
+            }
+            assertEquals(single.getPointCount(), batched.getPointCount());
+            for (int i = 0; i < single.getPointCount(); i++) {
+                assertEquals(single.getXAt(i), batched.getXAt(i), 0);
+                assertEquals(single.getYAt(i), batched.getYAt(i), 0);
+                assertEquals(single.getTimeAt(i), batched.getTimeAt(i));
+                assertEquals(single.getStateAt(i), batched.getStateAt(i));
+            }
+            assertEquals(single.getPathLength(), batched.getPathLength(), 0);
+            assertEquals(single.getMinX(), batched.getMinX(), 0);
+            assertEquals(single.getMaxY(), batched.getMaxY(), 0);
+            assertEquals(single.getFurthestX(), batched.getFurthestX(), 0);
+        }
+    }
+
+    @Test
+    public void accessorsReadBackEveryPoint() throws Exception {
+        final Gesture gesture = new Gesture("tag", 3, 10, 20, 100, null);
+        gesture.addPoint(Gesture.BODY, 15, 18, 108);
+        gesture.addPoint(new FPoint(Gesture.TAIL, 40, 60, 116));
+        assertEquals(3, gesture.getId());
+        assertEquals("tag", gesture.getTag());
+        assertEquals(3, gesture.getPointCount());
+        assertEquals(Gesture.HEAD, gesture.getStateAt(0));
+        assertEquals(15, gesture.getXAt(1), 0);
+        assertEquals(18, gesture.getYAt(1), 0);
+        assertEquals(108, gesture.getTimeAt(1));
+        assertEquals(Gesture.TAIL, gesture.getStateAt(2));
+        assertEquals(10, gesture.getDownX(), 0);
+        assertEquals(20, gesture.getDownY(), 0);
+        assertEquals(40, gesture.getUpX(), 0);
+        assertEquals(60, gesture.getUpY(), 0);
+        assertEquals(100, gesture.getPressTime());
+        assertEquals(116, gesture.getReleaseTime());
+        assertEquals(16, gesture.getTimeTaken());
+        assertEquals(-30, gesture.getDeltaX(), 0);
+        assertEquals(-40, gesture.getDeltaY(), 0);
+        assertEquals(50, gesture.getLength(), 1e-6);
+        assertEquals(10, gesture.getMinX(), 0);
+        assertEquals(18, gesture.getMinY(), 0);
+        assertEquals(40, gesture.getMaxX(), 0);
+        assertEquals(60, gesture.getMaxY(), 0);
+        assertTrue(gesture.pointExists(2));
+        assertFalse(gesture.pointExists(3));
+        assertFalse(gesture.pointExists(-1));
+        assertNull(gesture.getPointAt(3));
+
+        gesture.setStateAt(1, Gesture.HEAD);
+        assertEquals(Gesture.HEAD, gesture.getStateAt(1));
+        gesture.editPoint(1, new FPoint(Gesture.BODY, 16, 19, 109));
+        assertEquals(16, gesture.getXAt(1), 0);
+        assertEquals(19, gesture.getYAt(1), 0);
+        assertEquals(109, gesture.getTimeAt(1));
+        assertEquals(Gesture.BODY, gesture.getStateAt(1));
+    }
+
+    @Test
+    public void arraysGrowPastTheirInitialCapacity() throws Exception {
+        final Gesture gesture = new Gesture(null, 0, 0, 0, 0, null);
+        for (int i = 1; i < 1000; i++) {
+            gesture.addPoint(Gesture.BODY, i, -i, i * 4);
+        }
+        assertEquals(1000, gesture.getPointCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, gesture.getXAt(i), 0);
+            assertEquals(-i, gesture.getYAt(i), 0);
+            assertEquals(i * 4, gesture.getTimeAt(i));
+        }
+        final float[] x = new float[1000];
+        final float[] y = new float[1000];
+        assertEquals(1000, gesture.copyPath(x, y));
+        assertEquals(999, x[999], 0);
+        assertEquals(-999, y[999], 0);
+        assertEquals(0, gesture.getDroppedCount());
+    }
+
+    @Test
+    public void pointsAreCopiesOfThePath() throws Exception {
+        final Gesture gesture = walk(new Random(5), 40, 3);
+        final List<FPoint> points = gesture.getPoints();
+        assertEquals(gesture.getPointCount(), points.size());
+        for (int i = 0; i < points.size(); i++) {
+            final FPoint point = points.get(i);
+            assertEquals(gesture.getXAt(i), point.getX(), 0);
+            assertEquals(gesture.getYAt(i), point.getY(), 0);
+            assertEquals(gesture.getTimeAt(i), point.getTime());
+            assertEquals(gesture.getStateAt(i), point.getState());
+        }
+
+        final float x = gesture.getXAt(5);
+        points.get(5).setX(-1000);                      // Copies, the path stays as it was
+        try {
+            points.clear();
+            fail("Points list modified");
+        } catch (UnsupportedOperationException expected) {
+            // A snapshot, it can't stand in for the path
+        }
+        assertEquals(x, gesture.getXAt(5), 0);
+        assertEquals(40, gesture.getPointCount());
+        gesture.getPointAt(6).setY(-1000);
+        assertTrue(gesture.getYAt(6) != -1000);
+        assertTrue(gesture.getPoints() != gesture.getPoints());
+
+        final Gesture rebuilt = new Gesture(null, 0, gesture.getDownX(), gesture.getDownY(), gesture.getPressTime(), null);
+        final List<FPoint> copied = gesture.getPoints();
+        for (int i = 1; i < copied.size(); i++) {
+            rebuilt.addPoint(copied.get(i));
+        }
+        assertEquals(gesture.getPoints().size(), rebuilt.getPointCount());
+        for (int i = 0; i < rebuilt.getPointCount(); i++) {
+            assertEquals(gesture.getXAt(i), rebuilt.getXAt(i), 0);
+            assertEquals(gesture.getYAt(i), rebuilt.getYAt(i), 0);
+            assertEquals(gesture.getTimeAt(i), rebuilt.getTimeAt(i));
+            assertEquals(gesture.getStateAt(i), rebuilt.getStateAt(i));
+        }
+        assertEquals(gesture.getPathLength(), rebuilt.getPathLength(), 1e-3);
+    }
+
+    /**
+     * Random walk with steps of exactly the given length.
+     */
+    private static Gesture walk(Random random, int points, float step) {
+        float x = 500;
+        float y = 200;
+        final Gesture gesture = new Gesture(null, 0, x, y, 0, null);
+        double angle = random.nextDouble() * Math.PI * 2;
+        for (int i = 1; i < points; i++) {
+            angle += random.nextGaussian() * 0.3;
+            x += (float) (Math.cos(angle) * step);
+            y += (float) (Math.sin(angle) * step);
+            gesture.addPoint(i == points - 1 ? Gesture.TAIL : Gesture.BODY, x, y, i * 2);
+        }
+        return gesture;
+    }
+
+}
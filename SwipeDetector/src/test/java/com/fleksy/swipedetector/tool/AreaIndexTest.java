@@ -0,0 +1,134 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Bounds;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AreaIndexTest {
+
+    private static final int LAYOUTS = 200;
+    private static final int POINTS = 500;
+
+    @Test
+    public void findsWhatTheLinearScanFinds() throws Exception {
+        final Random random = new Random(42);
+        final AreaIndex index = new AreaIndex();
+        for (int layout = 0; layout < LAYOUTS; layout++) {
+            final Bounds[] areas = randomLayout(random);
+            index.update(areas);
+            for (int i = 0; i < POINTS; i++) {
+                assertFinds(index, areas, random.nextFloat() * 1200 - 60, random.nextFloat() * 500 - 50);
+            }
+            for (final Bounds area : areas) {             // Exactly on the edges and corners
+                assertFinds(index, areas, area.left, area.top);
+                assertFinds(index, areas, area.right, area.bottom);
+                assertFinds(index, areas, area.left, (area.top + area.bottom) / 2);
+                assertFinds(index, areas, area.right, (area.top + area.bottom) / 2);
+                assertFinds(index, areas, (area.left + area.right) / 2, area.top);
+                assertFinds(index, areas, (area.left + area.right) / 2, area.bottom);
+                assertFinds(index, areas, Math.nextAfter(area.right, Double.POSITIVE_INFINITY), area.bottom);
+                assertFinds(index, areas, area.left, Math.nextAfter(area.top, Double.NEGATIVE_INFINITY));
+            }
+        }
+    }
+
+    @Test
+    public void overlappingAreasComeBackInArrayOrder() throws Exception {
+        final Bounds[] areas = {
+                new Bounds(0, 0, 100, 100),
+                new Bounds(50, 50, 150, 150),
+                new Bounds(200, 0, 300, 100),
+                new Bounds(75, 75, 80, 80)
+        };
+        final AreaIndex index = new AreaIndex().update(areas);
+        final List<Bounds> found = new ArrayList<>();
+        assertEquals(3, index.findAll(78, 78, found));
+        assertEquals(areas[0], found.get(0));
+        assertEquals(areas[1], found.get(1));
+        assertEquals(areas[3], found.get(2));
+        assertEquals(0, index.find(78, 78));
+        assertEquals(1, index.find(120, 120));
+        assertEquals(0, index.find(100, 100));          // Shared corner of the first two
+        assertEquals(-1, index.find(150.5f, 150));
+    }
+
+    @Test
+    public void rebuildsForNewArraysAndAfterInvalidate() throws Exception {
+        final Bounds[] first = {new Bounds(0, 0, 10, 10)};
+        final Bounds[] second = {new Bounds(20, 20, 30, 30), new Bounds(0, 0, 10, 10)};
+        final AreaIndex index = new AreaIndex().update(first);
+        assertEquals(-1, index.find(25, 25));
+        assertEquals(0, index.update(second).find(25, 25));
+        assertEquals(1, index.find(5, 5));
+
+        second[0].set(100, 100, 110, 110);              // Moved in place
+        index.invalidate();
+        assertEquals(-1, index.update(second).find(25, 25));
+        assertEquals(0, index.find(105, 105));
+
+        index.update(null);
+        assertEquals(-1, index.find(5, 5));
+        assertEquals(0, index.findAll(5, 5, new ArrayList<Bounds>()));
+    }
+
+    /**
+     * A keyboard like grid of keys with some random areas on top, overlapping them and each other,
+     * and now and then an empty one.
+     */
+    private static Bounds[] randomLayout(Random random) {
+        final int columns = 1 + random.nextInt(12);
+        final int rows = 1 + random.nextInt(5);
+        final float width = 1080f / columns;
+        final float height = 400f / rows;
+        final int extra = random.nextInt(8);
+        final Bounds[] areas = new Bounds[columns * rows + extra];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                areas[r * columns + c] = new Bounds(c * width, r * height, (c + 1) * width, (r + 1) * height);
+            }
+        }
+        for (int i = columns * rows; i < areas.length; i++) {
+            final float left = random.nextFloat() * 1080;
+            final float top = random.nextFloat() * 400;
+            if (random.nextInt(10) == 0) {
+                areas[i] = new Bounds(left, top, left - 1, top);
+            } else {
+                areas[i] = new Bounds(left, top, left + random.nextFloat() * 300, top + random.nextFloat() * 200);
+            }
+        }
+        /* Keep the grid from always coming first */
+        for (int i = areas.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final Bounds swap = areas[i];
+            areas[i] = areas[j];
+            areas[j] = swap;
+        }
+        return areas;
+    }
+
+    private static void assertFinds(AreaIndex index, Bounds[] areas, float x, float y) {
+        final List<Bounds> expected = new ArrayList<>();
+        int first = -1;
+        for (int i = 0; i < areas.length; i++) {
+            if (Calculator.contains(x, y, areas[i])) {
+                expected.add(areas[i]);
+                first = (first < 0) ? i : first;
+            }
+        }
+        final List<Bounds> found = new ArrayList<>();
+        final String point = "(" + x + ", " + y + ")";
+        assertEquals(point, first, index.find(x, y));
+        assertEquals(point, expected.size(), index.findAll(x, y, found));
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(point, expected.get(i) == found.get(i));
+        }
+    }
+
+}
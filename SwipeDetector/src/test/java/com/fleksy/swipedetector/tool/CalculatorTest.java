@@ -0,0 +1,56 @@
+package com.fleksy.swipedetector.tool;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CalculatorTest {
+
+    private static final double ATAN_ERROR = 1e-7;
+
+    @Test
+    public void fastAtan2StaysWithinBound() throws Exception {
+        final Random random = new Random(2016);
+        double worst = 0;
+        for (int i = 0; i < 1000000; i++) {
+            final float x = (random.nextFloat() - 0.5f) * 200;
+            final float y = (random.nextFloat() - 0.5f) * 200;
+            worst = Math.max(worst, Math.abs(Calculator.fastAtan2(y, x) - Math.atan2(y, x)));
+        }
+        assertTrue("Worst error " + worst, worst < ATAN_ERROR);
+    }
+
+    @Test
+    public void fastAtan2MatchesAxesAndSignedZeros() throws Exception {
+        final float[] values = {0.0f, -0.0f, 1.0f, -1.0f, 7.5f, -7.5f};
+        for (float x : values) {
+            for (float y : values) {
+                assertEquals(x + ", " + y, Math.atan2(y, x), Calculator.fastAtan2(y, x), ATAN_ERROR);
+                assertEquals(Math.copySign(1.0, Math.atan2(y, x)),
+                        Math.copySign(1.0, Calculator.fastAtan2(y, x)), 0);
+            }
+        }
+    }
+
+    @Test
+    public void fastDeltaRadiansMatchesWrap() throws Exception {
+        final Random random = new Random(17);
+        for (int i = 0; i < 100000; i++) {
+            final double current = (random.nextDouble() - 0.5) * 2 * Math.PI;
+            final double previous = (random.nextDouble() - 0.5) * 2 * Math.PI;
+            assertEquals(Calculator.getDeltaRad(current, previous),
+                    Calculator.getDeltaRad(current, previous, true), 1e-12);
+        }
+    }
+
+    @Test
+    public void squaredLengthKeepsOrdering() throws Exception {
+        assertEquals(25.0, Calculator.calcLengthSquared(3, 4), 0);
+        assertEquals(5.0, Calculator.calcLength(3, 4), 0);
+        assertTrue(Calculator.calcLengthSquared(3, 4) < Calculator.calcLengthSquared(4, 4));
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.OfflineDetector;
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GestureGeneratorTest {
+
+    private static final int CORPUS = 4000;
+
+    @Test
+    public void sameSeedSameGestures() throws Exception {
+        final GestureGenerator first = new GestureGenerator(5, 1080, 400).setSampleRate(480);
+        final GestureGenerator second = new GestureGenerator(5, 1080, 400).setSampleRate(480);
+        for (int i = 0; i < 200; i++) {
+            final Gesture a = first.next();
+            final Gesture b = second.next();
+            assertEquals(first.getLabel(), second.getLabel());
+            assertEquals(a.getPointCount(), b.getPointCount());
+            for (int p = 0; p < a.getPointCount(); p++) {
+                assertEquals(a.getXAt(p), b.getXAt(p), 0);
+                assertEquals(a.getYAt(p), b.getYAt(p), 0);
+                assertEquals(a.getTimeAt(p), b.getTimeAt(p));
+                if (p > 0) {
+                    assertTrue("Samples in order", a.getTimeAt(p) > a.getTimeAt(p - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void detectorAgreesWithTheLabels() throws Exception {
+        final GestureGenerator generator = new GestureGenerator(17, 1080, 400).setSampleRate(240);
+        final List<Gesture> gestures = new ArrayList<>();
+        final List<Classification> labels = new ArrayList<>();
+        generator.next(CORPUS, gestures, labels);
+        final OfflineDetector detector = new OfflineDetector(3.0f, 1080, 400);
+        final int[][] counts = new int[3][3];
+        for (int i = 0; i < CORPUS; i++) {
+            counts[labels.get(i).ordinal()][detector.classify(gestures.get(i)).ordinal()]++;
+        }
+        final int taps = Classification.TAP.ordinal();
+        final int swipes = Classification.SWIPE.ordinal();
+        final int phantoms = Classification.PHANTOM.ordinal();
+        assertTrue(counts[taps][taps] > 0 && counts[swipes][swipes] > 0 && counts[phantoms][phantoms] > 0);
+        assertTrue("Taps", counts[taps][taps] >= sum(counts[taps]) * 0.99);
+        assertTrue("Swipes", counts[swipes][swipes] >= sum(counts[swipes]) * 0.95);
+        assertTrue("Ghosts", counts[phantoms][phantoms] >= sum(counts[phantoms]) * 0.8);
+    }
+
+    @Test
+    public void streamsKeepEveryPointerInOrder() throws Exception {
+        final GestureGenerator generator = new GestureGenerator(23, 1080, 400)
+                .setSampleRate(GestureGenerator.MAX_SAMPLE_RATE)
+                .setMaxPointers(GestureGenerator.MAX_POINTERS)
+                .setRate(GestureGenerator.CHORD, 50);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GestureRecorder recorder = new GestureRecorder(out);
+        generator.write(recorder, 300);
+        recorder.close();
+
+        final GestureRecording recording = new GestureRecording(ByteBuffer.wrap(out.toByteArray()));
+        final boolean[] down = new boolean[GestureGenerator.MAX_POINTERS];
+        int active = 0;
+        int mostActive = 0;
+        int frames = 0;
+        long time = 0;
+        while (recording.next()) {
+            assertTrue("Events in order", recording.getTime() >= time);
+            time = recording.getTime();
+            final int id = recording.getPointerId();
+            switch (recording.getType()) {
+                case GestureRecorder.DOWN:
+                    assertTrue(!down[id]);
+                    down[id] = true;
+                    mostActive = Math.max(mostActive, ++active);
+                    break;
+                case GestureRecorder.MOVE:
+                    assertTrue(down[id]);
+                    break;
+                case GestureRecorder.UP:
+                    assertTrue(down[id]);
+                    down[id] = false;
+                    active--;
+                    break;
+                case GestureRecorder.FRAME:
+                    frames++;
+                    break;
+            }
+        }
+        assertEquals(0, active);
+        assertTrue("Chords", mostActive > 4);
+        assertTrue(frames > 0);
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (final int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+}
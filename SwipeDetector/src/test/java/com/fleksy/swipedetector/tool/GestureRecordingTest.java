@@ -0,0 +1,92 @@
+package com.fleksy.swipedetector.tool;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GestureRecordingTest {
+
+    private static final int SWIPES = 500;
+
+    private GestureRecording recording;
+
+    @Test
+    public void replaysExactlyWhatWasRecorded() throws Exception {
+        final File file = File.createTempFile("gestures", ".rec");
+        file.deleteOnExit();
+        final GestureRecorder recorder = new GestureRecorder(new FileOutputStream(file));
+        int events = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            final Random random = new Random(3);
+            long time = 1000000;
+            for (int s = 0; s < SWIPES; s++) {
+                final int pointer = random.nextInt(GestureRecorder.MAX_POINTERS);
+                float x = random.nextFloat() * 1080;
+                float y = random.nextFloat() * 600;
+                final int samples = 2 + random.nextInt(30);
+                for (int i = 0; i < samples; i++) {
+                    final int type = i == 0 ? GestureRecorder.DOWN
+                            : i == samples - 1 ? GestureRecorder.UP : GestureRecorder.MOVE;
+                    time += 4 + random.nextInt(8);
+                    x += random.nextFloat() * 20 - 10;
+                    y += random.nextFloat() * 20 - 10;
+                    if (pass == 0) {
+                        recorder.record(type, pointer, x, y, time);
+                        if (type == GestureRecorder.MOVE) {
+                            recorder.record(GestureRecorder.FRAME, -1, 0, 0, time);
+                        }
+                        events++;
+                    } else {
+                        assertNext(type, pointer, x, y, time);
+                        if (type == GestureRecorder.MOVE) {
+                            assertNext(GestureRecorder.FRAME, -1, 0, 0, time);
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                recorder.record(GestureRecorder.CANCEL, -1, 0, 0, time);
+                recorder.close();
+                assertTrue("Bytes per sample", (double) file.length() / events < 10);
+                recording = GestureRecording.open(file);
+            } else {
+                assertNext(GestureRecorder.CANCEL, -1, 0, 0, time);
+                assertFalse(recording.next());
+            }
+        }
+        recording.rewind();
+        assertTrue(recording.next());
+        assertEquals(GestureRecorder.DOWN, recording.getType());
+    }
+
+    @Test
+    public void rejectsPointersItCantReplay() throws Exception {
+        final GestureRecorder recorder = new GestureRecorder(new ByteArrayOutputStream());
+        try {
+            recorder.record(GestureRecorder.DOWN, GestureRecorder.MAX_POINTERS, 0, 0, 0);
+            fail("Pointer dropped");
+        } catch (IllegalArgumentException expected) {
+            // Its ID doesn't fit the head byte
+        }
+    }
+
+    private void assertNext(int type, int pointer, float x, float y, long time) {
+        assertTrue(recording.next());
+        assertEquals(type, recording.getType());
+        assertEquals(pointer, recording.getPointerId());
+        assertEquals(time, recording.getTime());
+        if (pointer >= 0) {
+            assertEquals(Float.floatToIntBits(x), Float.floatToIntBits(recording.getX()));
+            assertEquals(Float.floatToIntBits(y), Float.floatToIntBits(recording.getY()));
+        }
+    }
+
+}
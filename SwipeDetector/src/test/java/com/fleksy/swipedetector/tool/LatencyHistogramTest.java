@@ -0,0 +1,40 @@
+package com.fleksy.swipedetector.tool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsStayWithinAnEighthOfTheirValues() throws Exception {
+        for (long value = 0; value < LatencyHistogram.MAX_VALUE; value = value * 3 / 2 + 1) {
+            final int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.lowest(bucket) <= value);
+            assertTrue(LatencyHistogram.highest(bucket) >= value);
+            assertTrue(LatencyHistogram.highest(bucket) - LatencyHistogram.lowest(bucket)
+                    <= value / LatencyHistogram.SUB_BUCKETS);
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE,
+                LatencyHistogram.highest(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesComeFromTheRecordedValues() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50000, histogram.getPercentile(50), 50000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(99000, histogram.getPercentile(99), 99000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(100000, histogram.getMax(), 100000 / LatencyHistogram.SUB_BUCKETS);
+
+        final LatencyHistogram drained = histogram.drain();
+        assertEquals(100, drained.getCount());
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+}
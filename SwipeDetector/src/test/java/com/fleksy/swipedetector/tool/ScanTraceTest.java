@@ -0,0 +1,34 @@
+package com.fleksy.swipedetector.tool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScanTraceTest {
+
+    @Test
+    public void oldestEntriesAreOverwritten() throws Exception {
+        final ScanTrace trace = new ScanTrace(4);
+        for (int i = 0; i < 6; i++) {
+            trace.record(ScanTrace.JUMPER, i, i, 1, i * 10, 0, 0, 0, 0, 0);
+        }
+        assertEquals(4, trace.size());
+        assertEquals(6, trace.getWritten());
+        assertEquals(2, trace.getIndex(0));
+        assertEquals(5, trace.getIndex(3));
+        assertEquals(50, trace.getValue(3, 0), 0);
+    }
+
+    @Test
+    public void latestScanStartsTheOutput() throws Exception {
+        final ScanTrace trace = new ScanTrace(8);
+        trace.record(ScanTrace.SCAN, -1, 0, 0, 0, 0, 0, 0, 0, 0);
+        trace.record(ScanTrace.JUMPER, -1, 1, 1, 0, 0, 0, 0, 0, 0);
+        trace.record(ScanTrace.SCAN, -1, 0, 0, 0, 0, 0, 0, 0, 0);
+        trace.record(ScanTrace.BAD_ENDING, -1, 0.5f, 0.5f, 0, 0, 0, 0, 0, 0);
+        assertEquals(2, trace.getLatestScan());
+        assertEquals("\nBAD ENDING 0.5 (+0.5)\n",
+                trace.appendTo(new StringBuilder(), trace.getLatestScan()).toString());
+    }
+
+}
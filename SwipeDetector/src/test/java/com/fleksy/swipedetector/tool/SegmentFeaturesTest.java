@@ -0,0 +1,54 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SegmentFeaturesTest {
+
+    @Test
+    public void featuresMatchThePerSegmentMath() throws Exception {
+        final Random random = new Random(17);
+        final SegmentFeatures features = new SegmentFeatures();
+        for (int points : new int[]{1, 2, 5, 130}) {
+            final Gesture gesture = new Gesture(null, 0, 100, 100, 0, null);
+            for (int p = 1; p < points; p++) {
+                gesture.addPoint(Gesture.BODY, 100 + p * 7 + random.nextFloat() * 5,
+                        100 + random.nextFloat() * 20, p * 8);
+            }
+            features.extract(gesture);
+            assertEquals(points - 1, features.getSegmentCount());
+
+            double path = 0;
+            double min = Double.MAX_VALUE;
+            double max = 0;
+            final List<Double> lengths = new ArrayList<>();
+            for (int i = 1; i < points; i++) {
+                final float dX = gesture.getXAt(i) - gesture.getXAt(i - 1);
+                final float dY = gesture.getYAt(i) - gesture.getYAt(i - 1);
+                final double length = Calculator.calcLength(dX, dY);
+                assertEquals(dX, features.getDeltaXs()[i - 1], 0);
+                assertEquals(dY, features.getDeltaYs()[i - 1], 0);
+                assertEquals(length, features.getLengths()[i - 1], length * 1e-6);
+                lengths.add(length);
+                path += length;
+                min = Math.min(min, length);
+                max = Math.max(max, length);
+            }
+            assertEquals(path, features.getPathLength(), path * 1e-5);
+            if (points > 1) {
+                assertEquals(min, features.getMinLength(), min * 1e-6);
+                assertEquals(max, features.getMaxLength(), max * 1e-6);
+                assertEquals(Calculator.calcStandardDeviation(lengths),
+                        features.getStandardDeviation(), 1e-3f);
+            }
+        }
+    }
+
+}
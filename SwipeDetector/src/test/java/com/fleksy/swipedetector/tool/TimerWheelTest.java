@@ -0,0 +1,79 @@
+package com.fleksy.swipedetector.tool;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimerWheelTest {
+
+    @Test
+    public void timersRunInDeadlineOrder() throws Exception {
+        final TimerWheel wheel = new TimerWheel(8, 1, 1000);
+        final List<String> ran = new ArrayList<>();
+        wheel.schedule(log(ran, "hold"), 500);
+        wheel.schedule(log(ran, "preHold"), 100);
+        wheel.schedule(log(ran, "doubleTap"), 100);
+        wheel.advanceTo(1099);
+        assertEquals(0, ran.size());
+        wheel.advanceTo(1100);
+        assertEquals("[preHold, doubleTap]", ran.toString());
+        wheel.advanceTo(5000);
+        assertEquals("[preHold, doubleTap, hold]", ran.toString());
+        assertEquals(5000, wheel.now());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancelledAndRescheduledTimersRunOnce() throws Exception {
+        final TimerWheel wheel = new TimerWheel();
+        final List<String> ran = new ArrayList<>();
+        final Timer cancelled = log(ran, "cancelled");
+        final Timer moved = log(ran, "moved");
+        wheel.schedule(cancelled, 10);
+        wheel.schedule(moved, 10);
+        wheel.cancel(cancelled);
+        wheel.schedule(moved, 30);
+        wheel.advanceTo(20);
+        assertEquals(0, ran.size());
+        wheel.advanceTo(30);
+        assertEquals("[moved]", ran.toString());
+        wheel.schedule(moved, 0);
+        wheel.advanceTo(30);
+        assertEquals("[moved, moved]", ran.toString());
+    }
+
+    @Test
+    public void repeatingTimersFollowTheVirtualClock() throws Exception {
+        final TimerWheel wheel = new TimerWheel(4, 1, 0);
+        final long[] times = new long[5];
+        final int[] count = new int[1];
+        final Timer[] repeat = new Timer[1];
+        repeat[0] = new Timer(new Runnable() {
+            @Override
+            public void run() {
+                times[count[0]++] = wheel.now();
+                if (count[0] < times.length) {
+                    wheel.schedule(repeat[0], 7);
+                }
+            }
+        });
+        wheel.schedule(repeat[0], 3);
+        wheel.advanceTo(1000);
+        assertEquals(5, count[0]);
+        assertEquals(3, times[0]);
+        assertEquals(31, times[4]);
+    }
+
+    private static Timer log(final List<String> ran, final String name) {
+        return new Timer(new Runnable() {
+            @Override
+            public void run() {
+                ran.add(name);
+            }
+        });
+    }
+
+}
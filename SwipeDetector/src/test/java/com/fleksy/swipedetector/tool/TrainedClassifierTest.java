@@ -0,0 +1,96 @@
+package com.fleksy.swipedetector.tool;
+
+import com.fleksy.swipedetector.OfflineDetector;
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TrainedClassifierTest {
+
+    /* Straight paths are phantoms unless they are long, wandering ones are human */
+    private static final int[] FEATURES = {GestureFeatures.STRAIGHTNESS, GestureFeatures.PATH_LENGTH};
+    private static final float[] THRESHOLDS = {0.99f, 0.5f};
+    private static final int[] CHILDREN = {~0, 1, ~1, ~0};
+    private static final float[] LEAVES = {-1, 1};
+
+    @Test
+    public void treesFollowTheirThresholds() throws Exception {
+        final DecisionTree tree = new DecisionTree(FEATURES, THRESHOLDS, CHILDREN, LEAVES);
+        final DecisionTree read = DecisionTree.read(new ByteArrayInputStream(write(tree)));
+        final float[] vector = new float[GestureFeatures.FEATURES];
+        vector[GestureFeatures.STRAIGHTNESS] = 0.5f;
+        assertEquals(-1, tree.score(vector), 0);
+        vector[GestureFeatures.STRAIGHTNESS] = 1;
+        assertEquals(1, tree.score(vector), 0);
+        assertEquals(1, read.score(vector), 0);
+        vector[GestureFeatures.PATH_LENGTH] = 2;
+        assertEquals(-1, tree.score(vector), 0);
+        assertEquals(-1, read.score(vector), 0);
+        assertEquals(2, read.getNodeCount());
+        assertEquals(2, read.getLeafCount());
+    }
+
+    @Test
+    public void treesMustOnlyPointForward() throws Exception {
+        try {
+            new DecisionTree(FEATURES, THRESHOLDS, new int[]{~0, 1, 0, ~0}, LEAVES);
+            fail("Cycle accepted");
+        } catch (IllegalArgumentException expected) {
+            // A child pointing back to the root would never end
+        }
+        try {
+            DecisionTree.read(new ByteArrayInputStream(new byte[]{'S', 'W', 'L', 'M', 1}));
+            fail("Linear model read as a tree");
+        } catch (IOException expected) {
+            // Wrong magic bytes
+        }
+    }
+
+    @Test
+    public void detectorsAskTheirClassifier() throws Exception {
+        final Gesture gesture = new Gesture(null, 0, 100, 200, 0, null);
+        for (int i = 1; i <= 10; i++) {
+            gesture.addPoint(i == 10 ? Gesture.TAIL : Gesture.BODY, 100 + i * 30, 200, i * 8);
+        }
+        final float[] weights = new float[GestureFeatures.FEATURES];
+        final LinearModel model = LinearModel.read(new ByteArrayInputStream(write(new LinearModel(weights, 1))));
+        final OfflineDetector detector = new OfflineDetector(3.0f, 1080, 400);
+        final Classification rules = detector.classify(gesture);
+        detector.setClassifier(model);
+        assertEquals(Classification.PHANTOM, detector.classify(gesture));
+        detector.setClassifier(new DecisionTree(FEATURES, THRESHOLDS, CHILDREN, LEAVES));
+        assertEquals(Classification.SWIPE, detector.classify(gesture));
+        detector.setClassifier(null);
+        assertEquals(rules, detector.classify(gesture));
+
+        final float[] vector = new GestureFeatures().extract(gesture, 400);
+        assertEquals(1, vector[GestureFeatures.STRAIGHTNESS], 1e-6);
+        assertEquals(300 / 400f, vector[GestureFeatures.PATH_LENGTH], 1e-6);
+        assertEquals(1, vector[GestureFeatures.STRAIGHT_RUNS], 0);
+        assertFalse(vector[GestureFeatures.VERTICAL] > 0);
+        assertTrue(model.score(vector) >= 0);
+    }
+
+    private static byte[] write(DecisionTree tree) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.write(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] write(LinearModel model) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out);
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.Calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * The per point math used while scanning a gesture. Every operation covers one segment.
+ */
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    private static final int SEGMENTS = 256;
+
+    private final float[] dXs = new float[SEGMENTS];
+    private final float[] dYs = new float[SEGMENTS];
+    private final double[] rads = new double[SEGMENTS];
+    private Gesture swipe;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            dXs[i] = (random.nextFloat() - 0.5f) * 40;
+            dYs[i] = (random.nextFloat() - 0.5f) * 40;
+            rads[i] = Calculator.findRads(dXs[i], -dYs[i]);
+        }
+        swipe = Trace.swipe(SEGMENTS, SEGMENTS).replay(new HeadlessRefinery(false, false), 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void calcLength(Blackhole hole) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.calcLength(dXs[i], dYs[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void findRads(Blackhole hole) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.findRads(dXs[i], -dYs[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void findRadsFast(Blackhole hole) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.findRads(dXs[i], -dYs[i], true));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void getDeltaRad(Blackhole hole) {
+        double prev = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.getDeltaRad(rads[i], prev));
+            prev = rads[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void getDeltaRadFast(Blackhole hole) {
+        double prev = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.getDeltaRad(rads[i], prev, true));
+            prev = rads[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void getDirection(Blackhole hole) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            hole.consume(Calculator.getDirection(dXs[i], dYs[i], false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public int findFurthestPoint() {
+        return Calculator.findFurthestPoint(swipe);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public int findFurthestPointFast() {
+        return Calculator.findFurthestPoint(swipe, true);
+    }
+
+}
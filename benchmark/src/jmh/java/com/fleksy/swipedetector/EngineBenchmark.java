@@ -0,0 +1,61 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.tool.TouchFrame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Replays the session of the PipelineBenchmark as touch events through the GestureEngine, the
+ * same path OnGestureListener takes on a device: downs, batched moves, hold timers, ups and
+ * delivery. Every operation is one gesture.
+ */
+@State(Scope.Thread)
+public class EngineBenchmark {
+
+    private static final int SESSION = 100;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    @Param({"1", "4"})
+    public int batch;
+
+    private final Trace[] session = new Trace[SESSION];
+    private final TouchFrame frame = new TouchFrame();
+    private HeadlessEngine engine;
+    private long time;
+
+    @Setup
+    public void setUp() {
+        engine = new HeadlessEngine(streaming);
+        final Random random = new Random(SESSION);
+        for (int i = 0; i < SESSION; i++) {
+            final int roll = random.nextInt(100);
+            if (roll < 70) {
+                session[i] = Trace.tap(i);
+            } else if (roll < 95) {
+                session[i] = Trace.swipe(8 + random.nextInt(56), i);
+            } else {
+                session[i] = Trace.phantom(i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSION)
+    public int replay() {
+        for (int i = 0; i < SESSION; i++) {
+            time += 1000;
+            session[i].replay(engine, frame, time, batch);
+        }
+        return engine.decisions;
+    }
+
+}
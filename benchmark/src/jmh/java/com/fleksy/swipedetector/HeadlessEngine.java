@@ -0,0 +1,256 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Bounds;
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.TimerWheel;
+
+/**
+ * GestureEngine with fixed answers for every callback, timed by a TimerWheel, used to run the
+ * whole path from touch events to delivery without an Android view. Holds are enabled so their
+ * timers are part of the cost, and every decision is counted so none can be optimised away.
+ */
+public class HeadlessEngine extends GestureEngine {
+
+    private final boolean streaming;
+    private final Bounds[] areas = new Bounds[0];
+
+    public int decisions;
+
+    public HeadlessEngine(boolean streaming) {
+        super(HeadlessRefinery.PIXEL, new TimerWheel());
+        this.streaming = streaming;
+        updateDimensions(HeadlessRefinery.WIDTH, HeadlessRefinery.HEIGHT);
+    }
+
+    @Override
+    protected boolean pooling() {
+        return true;
+    }
+
+    @Override
+    protected boolean streaming() {
+        return streaming;
+    }
+
+    @Override
+    protected int getTimeLimit(Gesture touch) {
+        return 0;
+    }
+
+    @Override
+    protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+        return false;
+    }
+
+    @Override
+    protected boolean onCheckedTap(Gesture tap) {
+        decisions++;
+        return true;
+    }
+
+    @Override
+    protected boolean onPhantomSwipe(Gesture phantom) {
+        decisions++;
+        return true;
+    }
+
+    @Override
+    protected boolean onDetectedSwipe(Gesture swipe) {
+        decisions++;
+        return true;
+    }
+
+    @Override
+    protected float getMinSwipeLength() {
+        return 0;
+    }
+
+    @Override
+    protected void onFreedom(Gesture touch) {
+    }
+
+    @Override
+    protected void onLiberate(Gesture touch) {
+    }
+
+    @Override
+    protected Object createTag(float rawX, float rawY, float x, float y) {
+        return null;
+    }
+
+    @Override
+    protected float xOffset() {
+        return 0;
+    }
+
+    @Override
+    protected float yOffset() {
+        return 0;
+    }
+
+    @Override
+    protected float swipeFactor() {
+        return 1;
+    }
+
+    @Override
+    protected boolean invertHorizontalSwipes() {
+        return false;
+    }
+
+    @Override
+    protected void onReset() {
+    }
+
+    @Override
+    protected void onHold(Gesture touch) {
+    }
+
+    @Override
+    protected long holdDelay(Gesture touch) {
+        return 400;
+    }
+
+    @Override
+    protected Gesture onPreHold(Gesture touch) {
+        return touch;
+    }
+
+    @Override
+    protected long preHoldDelay(Gesture touch) {
+        return 100;
+    }
+
+    @Override
+    protected long postHoldDelay(Gesture touch) {
+        return 100;
+    }
+
+    @Override
+    protected long doubleTapDelay(Gesture touch) {
+        return 200;
+    }
+
+    @Override
+    protected boolean canHold(Gesture touch) {
+        return true;
+    }
+
+    @Override
+    protected boolean repeatHold(Gesture touch) {
+        return false;
+    }
+
+    @Override
+    protected boolean onProcessHold(Gesture touch) {
+        return true;
+    }
+
+    @Override
+    protected boolean canSpecialize(Gesture touch) {
+        return false;
+    }
+
+    @Override
+    protected boolean canBeInAnArea(Gesture touch) {
+        return false;
+    }
+
+    @Override
+    protected Object getDoubleTapObj(Gesture touch) {
+        return null;
+    }
+
+    @Override
+    protected Gesture onTap(Gesture touch) {
+        return touch;
+    }
+
+    @Override
+    protected Gesture onDoubleTap(Gesture touch) {
+        return touch;
+    }
+
+    @Override
+    protected Gesture onRelease(Gesture touch) {
+        return touch;
+    }
+
+    @Override
+    protected Bounds[] getSpecialAreaBounds() {
+        return areas;
+    }
+
+    @Override
+    protected Bounds[] getAreaBounds() {
+        return areas;
+    }
+
+    @Override
+    protected long getSpecialDelay(Bounds area) {
+        return 0;
+    }
+
+    @Override
+    protected boolean onSpecialHold(Bounds area) {
+        return false;
+    }
+
+    @Override
+    protected Gesture onHeldDrag(Gesture touch, float rawX, float rawY) {
+        return touch;
+    }
+
+    @Override
+    protected void onSpecialArea(Gesture touch, Bounds area) {
+    }
+
+    @Override
+    protected boolean inSpecialHold(Gesture touch, Bounds area, Direction dir) {
+        return false;
+    }
+
+    @Override
+    protected boolean onSpecialDrag(Gesture touch, Bounds area, float delta, Direction dir) {
+        return false;
+    }
+
+    @Override
+    protected boolean onProcessSpecial(Gesture touch, Bounds area, Direction dir, boolean wasHeld) {
+        return false;
+    }
+
+    @Override
+    protected boolean canMultiTouch(Gesture touch) {
+        return false;
+    }
+
+    @Override
+    protected boolean onMultiTouch(Gesture[] touches) {
+        return false;
+    }
+
+    @Override
+    protected void preprocess() {
+    }
+
+    @Override
+    protected void onProcessTouch(Gesture touch) {
+    }
+
+    @Override
+    public void hardReset() {
+    }
+
+    @Override
+    protected int maxMultiTouch() {
+        return 1;
+    }
+
+    @Override
+    protected boolean multiTouchDirectionEnabled(Direction dir) {
+        return true;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Direction;
+import com.fleksy.swipedetector.model.Gesture;
+
+/**
+ * TouchRefinery with fixed answers for every callback, used to run the detection pipeline
+ * without an Android view.
+ */
+public class HeadlessRefinery extends TouchRefinery {
+
+    public static final float PIXEL = 3.0f;
+    public static final float WIDTH = 1080;
+    public static final float HEIGHT = 600;
+
+    private final boolean pooling;
+    private final boolean streaming;
+    private final boolean fastMath;
+    private final boolean decimating;
+
+    public HeadlessRefinery(boolean pooling, boolean streaming) {
+        this(pooling, streaming, false);
+    }
+
+    public HeadlessRefinery(boolean pooling, boolean streaming, boolean fastMath) {
+        this(pooling, streaming, fastMath, false);
+    }
+
+    public HeadlessRefinery(boolean pooling, boolean streaming, boolean fastMath, boolean decimating) {
+        super(PIXEL);
+        this.pooling = pooling;
+        this.streaming = streaming;
+        this.fastMath = fastMath;
+        this.decimating = decimating;
+        updateDimensions(WIDTH, HEIGHT);
+    }
+
+    @Override
+    protected boolean pooling() {
+        return pooling;
+    }
+
+    @Override
+    protected boolean streaming() {
+        return streaming;
+    }
+
+    @Override
+    protected boolean fastMath() {
+        return fastMath;
+    }
+
+    @Override
+    protected boolean decimating() {
+        return decimating;
+    }
+
+    @Override
+    protected int getTimeLimit(Gesture touch) {
+        return 0;
+    }
+
+    @Override
+    protected boolean ignoreSwipe(Gesture touch, Direction direction) {
+        return false;
+    }
+
+    @Override
+    protected boolean onCheckedTap(Gesture tap) {
+        return false;
+    }
+
+    @Override
+    protected boolean onPhantomSwipe(Gesture phantom) {
+        return true;
+    }
+
+    @Override
+    protected boolean onDetectedSwipe(Gesture swipe) {
+        return false;
+    }
+
+    @Override
+    protected float getMinSwipeLength() {
+        return 0;
+    }
+
+}
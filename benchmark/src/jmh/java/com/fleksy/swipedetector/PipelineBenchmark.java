@@ -0,0 +1,69 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays a typing session from down to delivery: mostly taps, some swipes and the odd
+ * phantom. Every operation is one gesture.
+ */
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    private static final int SESSION = 100;
+
+    @Param({"false", "true"})
+    public boolean pooling;
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    private final Trace[] session = new Trace[SESSION];
+    private HeadlessRefinery refinery;
+    private long time;
+
+    @Setup
+    public void setUp() {
+        refinery = new HeadlessRefinery(pooling, streaming);
+        final Random random = new Random(SESSION);
+        for (int i = 0; i < SESSION; i++) {
+            final int roll = random.nextInt(100);
+            if (roll < 70) {
+                session[i] = Trace.tap(i);
+            } else if (roll < 95) {
+                session[i] = Trace.swipe(8 + random.nextInt(56), i);
+            } else {
+                session[i] = Trace.phantom(i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SESSION)
+    public int replay() {
+        int delivered = 0;
+        for (int i = 0; i < SESSION; i++) {
+            time += 1000;
+            final List<Gesture> refined = refinery.refinery(session[i].replay(refinery, time), 1.0f, false);
+            for (int r = 0; r < refined.size(); r++) {
+                final Gesture touch = refined.get(r);
+                touch.process();
+                refinery.recycle(touch);
+                delivered++;
+            }
+            refinery.recycleList(refined);
+            refinery.recycleGestures();
+        }
+        return delivered;
+    }
+
+}
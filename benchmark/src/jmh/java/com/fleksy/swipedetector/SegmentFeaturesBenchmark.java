@@ -0,0 +1,60 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.Calculator;
+import com.fleksy.swipedetector.tool.SegmentFeatures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Segment lengths and their statistics over a whole trace, one pair of points at a time
+ * through Calculator as the scan does, against the array loops of SegmentFeatures.
+ */
+@State(Scope.Thread)
+public class SegmentFeaturesBenchmark {
+
+    @Param({"64", "256", "1024"})
+    public int points;
+
+    private Gesture swipe;
+    private float[] xs;
+    private float[] ys;
+    private final SegmentFeatures features = new SegmentFeatures();
+
+    @Setup
+    public void setUp() {
+        swipe = Trace.swipe(points, points).replay(new HeadlessRefinery(false, false), 0);
+        xs = new float[swipe.getPointCount()];
+        ys = new float[swipe.getPointCount()];
+        swipe.copyPath(xs, ys);
+    }
+
+    @Benchmark
+    public float perSegment() {
+        double sum = 0;
+        double squares = 0;
+        for (int i = 1; i < swipe.getPointCount(); i++) {
+            final double length = Calculator.calcLength(
+                    swipe.getXAt(i) - swipe.getXAt(i - 1),
+                    swipe.getYAt(i) - swipe.getYAt(i - 1));
+            sum += length;
+            squares += length * length;
+        }
+        return Calculator.calcStandardDeviation(swipe.getPointCount() - 1, sum, squares);
+    }
+
+    @Benchmark
+    public float segmentFeatures() {
+        return features.extract(xs, ys, xs.length).getStandardDeviation();
+    }
+
+    @Benchmark
+    public float segmentFeaturesFromGesture() {
+        return features.extract(swipe).getStandardDeviation();
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Phantom swipe scanning of a finished gesture, for short, medium and long swipes as well as
+ * a swipe sampled at a high rate.
+ */
+@State(Scope.Thread)
+public class SwipeDetectorBenchmark {
+
+    @Param({"8", "32", "128", "1024"})
+    public int points;
+
+    @Param({"false", "true"})
+    public boolean fastMath;
+
+    @Param({"false", "true"})
+    public boolean decimating;
+
+    private HeadlessRefinery detector;
+    private Gesture swipe;
+
+    @Setup
+    public void setUp() {
+        detector = new HeadlessRefinery(false, false, fastMath, decimating);
+        swipe = Trace.swipe(points, points).replay(detector, 0);
+    }
+
+    @Benchmark
+    public boolean check() {
+        return detector.check(swipe).isPhantom();
+    }
+
+}
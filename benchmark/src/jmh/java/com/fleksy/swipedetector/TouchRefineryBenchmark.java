@@ -0,0 +1,55 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Refining a released touch into its output gestures. Each operation replays the trace
+ * into a fresh gesture, as refinery() consumes the gesture it is given.
+ */
+@State(Scope.Thread)
+public class TouchRefineryBenchmark {
+
+    @Param({"tap", "swipe", "phantom"})
+    public String kind;
+
+    @Param({"false", "true"})
+    public boolean pooling;
+
+    private HeadlessRefinery refinery;
+    private Trace trace;
+    private long time;
+
+    @Setup
+    public void setUp() {
+        refinery = new HeadlessRefinery(pooling, false);
+        if ("tap".equals(kind)) {
+            trace = Trace.tap(1);
+        } else if ("swipe".equals(kind)) {
+            trace = Trace.swipe(32, 1);
+        } else {
+            trace = Trace.phantom(1);
+        }
+    }
+
+    @Benchmark
+    public int refinery() {
+        time += 1000;
+        final List<Gesture> refined = refinery.refinery(trace.replay(refinery, time), 1.0f, false);
+        final int count = refined.size();
+        for (int i = 0; i < count; i++) {
+            refinery.recycle(refined.get(i));
+        }
+        refinery.recycleList(refined);
+        refinery.recycleGestures();
+        return count;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.TouchFrame;
+import com.fleksy.swipedetector.tool.TouchSource;
+
+import java.util.Random;
+
+/**
+ * A recorded touch path kept in primitive arrays, replayed into gestures by the benchmarks.
+ */
+public final class Trace {
+
+    public static final long SAMPLE_TIME = 8; // 120 Hz
+
+    public final float[] xs;
+    public final float[] ys;
+    public final long[] times;
+
+    private Trace(int points) {
+        xs = new float[points];
+        ys = new float[points];
+        times = new long[points];
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * A finger going down and up on the same spot.
+     */
+    public static Trace tap(long seed) {
+        final Random random = new Random(seed * 0x5DEECE66DL);
+        final Trace trace = new Trace(2);
+        trace.set(0, 100 + random.nextFloat() * 880, 100 + random.nextFloat() * 400);
+        trace.set(1, trace.xs[0] + random.nextFloat(), trace.ys[0] + random.nextFloat());
+        return trace;
+    }
+
+    /**
+     * A human like swipe: steady direction with a slight wobble and uneven spacing.
+     */
+    public static Trace swipe(int points, long seed) {
+        final Random random = new Random(seed * 0x5DEECE66DL);
+        final Trace trace = new Trace(points);
+        final float step = 600.0f / points;
+        double angle = random.nextDouble() * Math.PI * 2;
+        float x = HeadlessRefinery.WIDTH / 2;
+        float y = HeadlessRefinery.HEIGHT / 2;
+        trace.set(0, x, y);
+        for (int i = 1; i < points; i++) {
+            angle += (random.nextDouble() - 0.5) * 0.1;
+            final float length = step * (0.6f + random.nextFloat() * 0.8f);
+            x += (float) Math.cos(angle) * length;
+            y += (float) Math.sin(angle) * length;
+            trace.set(i, x, y);
+        }
+        return trace;
+    }
+
+    /**
+     * A short ghost touch: perfectly straight segments that suddenly jump and end raggedly.
+     */
+    public static Trace phantom(long seed) {
+        final Random random = new Random(seed * 0x5DEECE66DL);
+        final Trace trace = new Trace(13);
+        final float x = 200 + random.nextFloat() * 600;
+        final float y = 100 + random.nextFloat() * 200;
+        for (int i = 0; i < 5; i++) {
+            trace.set(i, x + i * 4, y);
+        }
+        trace.set(5, x + 156, y);
+        trace.set(6, x + 160, y);
+        trace.set(7, x + 164, y);
+        for (int i = 8; i < 11; i++) {
+            trace.set(i, x + 164, y + (i - 7) * 20);
+        }
+        trace.set(11, x + 24, y + 60);
+        trace.set(12, x + 25, y + 61);
+        return trace;
+    }
+
+    private void set(int index, float x, float y) {
+        xs[index] = x;
+        ys[index] = y;
+        times[index] = index * SAMPLE_TIME;
+    }
+
+    /**
+     * Replays the whole trace into a gesture obtained from the refinery.
+     */
+    public Gesture replay(TouchRefinery refinery, long offset) {
+        final Gesture touch = refinery.obtainGesture(null, 0, xs[0], ys[0], offset + times[0], null);
+        final int last = size() - 1;
+        for (int i = 1; i <= last; i++) {
+            touch.addPoint(i == last ? Gesture.TAIL : Gesture.BODY, xs[i], ys[i], offset + times[i]);
+            if (i < last) {
+                refinery.streamPoints(touch);
+            }
+        }
+        return touch;
+    }
+
+    /**
+     * Replays the whole trace as touch events, with the moves batched like Android batches
+     * them between frames.
+     *
+     * @param batch Samples per move event
+     */
+    public void replay(GestureEngine engine, TouchFrame frame, long offset, int batch) {
+        frame.begin(TouchSource.DOWN, 0).sample(offset + times[0]).pointer(0, xs[0], ys[0]);
+        engine.onTouchEvent(frame);
+        final int last = size() - 1;
+        for (int i = 1; i < last; i += batch) {
+            frame.begin(TouchSource.MOVE, 0);
+            for (int h = i; h < i + batch && h < last; h++) {
+                frame.sample(offset + times[h]).pointer(0, xs[h], ys[h]);
+            }
+            engine.onTouchEvent(frame);
+        }
+        frame.begin(TouchSource.UP, 0).sample(offset + times[last]).pointer(0, xs[last], ys[last]);
+        engine.onTouchEvent(frame);
+    }
+
+}
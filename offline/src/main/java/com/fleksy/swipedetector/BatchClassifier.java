@@ -0,0 +1,129 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores labelled corpora of recorded gestures across all cores. The corpus is split between
+ * the workers of a fork-join pool, each of which classifies its share with its own detector
+ * and counts the results into its own confusion matrix, so workers never share any state.
+ */
+public final class BatchClassifier {
+
+    /**
+     * Creates the detector used by each worker thread. Every call must return a new detector
+     * configured with the thresholds being scored.
+     */
+    public interface Factory {
+        OfflineDetector create();
+    }
+
+    private static final int SPLIT_SIZE = 512; // Gestures a worker scores without splitting further
+
+    private final Factory factory;
+    private final ForkJoinPool pool;
+
+    public BatchClassifier(Factory factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchClassifier(Factory factory, int parallelism) {
+        this.factory = factory;
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Classifies every gesture and compares it with its label. The gestures are copied before
+     * being classified, so the same corpus can be scored again with other thresholds.
+     *
+     * @param gestures Finished gestures, preferably in a random access list
+     * @param labels   What each gesture is known to be
+     * @return The classifications, confusion matrix and throughput of the run
+     */
+    public BatchReport score(List<Gesture> gestures, List<Classification> labels) {
+        return score(gestures, labels, null);
+    }
+
+    /**
+     * Scores the corpus with the given thresholds instead of the ones the detectors were
+     * created with, such as a candidate profile of a ThresholdTuner.
+     *
+     * @param profile Thresholds every detector uses, null to keep their own
+     */
+    public BatchReport score(List<Gesture> gestures, List<Classification> labels, final ThresholdProfile profile) {
+        if (gestures.size() != labels.size()) {
+            throw new IllegalArgumentException(gestures.size() + " gestures but " + labels.size() + " labels");
+        }
+        final ThreadLocal<OfflineDetector> detectors = new ThreadLocal<OfflineDetector>() {
+            @Override
+            protected OfflineDetector initialValue() {
+                final OfflineDetector detector = factory.create();
+                if (profile != null) {
+                    detector.setProfile(profile);
+                }
+                return detector;
+            }
+        };
+        final Classification[] classifications = new Classification[gestures.size()];
+        final long start = System.nanoTime();
+        final long[] matrix = pool.invoke(new Scoring(detectors, gestures, labels, classifications, 0, gestures.size()));
+        return new BatchReport(classifications, matrix, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the worker threads. The classifier can no longer be used afterwards.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static final class Scoring extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ThreadLocal<OfflineDetector> detectors;
+        private final List<Gesture> gestures;
+        private final List<Classification> labels;
+        private final Classification[] classifications;
+        private final int from;
+        private final int to;
+
+        Scoring(ThreadLocal<OfflineDetector> detectors, List<Gesture> gestures, List<Classification> labels,
+                Classification[] classifications, int from, int to) {
+            this.detectors = detectors;
+            this.gestures = gestures;
+            this.labels = labels;
+            this.classifications = classifications;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SPLIT_SIZE) {
+                final int middle = (from + to) >>> 1;
+                final Scoring left = new Scoring(detectors, gestures, labels, classifications, from, middle);
+                left.fork();
+                final long[] matrix = new Scoring(detectors, gestures, labels, classifications, middle, to).compute();
+                final long[] other = left.join();
+                for (int i = 0; i < matrix.length; i++) {
+                    matrix[i] += other[i];
+                }
+                return matrix;
+            }
+            final OfflineDetector detector = detectors.get();
+            final long[] matrix = BatchReport.emptyMatrix();
+            for (int i = from; i < to; i++) {
+                final Classification classification = detector.classify(gestures.get(i));
+                classifications[i] = classification;
+                matrix[BatchReport.cell(labels.get(i), classification)]++;
+            }
+            return matrix;
+        }
+    }
+
+}
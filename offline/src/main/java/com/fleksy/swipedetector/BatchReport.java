@@ -0,0 +1,113 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+
+/**
+ * Outcome of a BatchClassifier run: what every gesture was classified as, the confusion
+ * matrix against the labels and how long scoring took.
+ */
+public final class BatchReport {
+
+    private static final int CLASSES = Classification.values().length;
+
+    private final Classification[] classifications;
+    private final long[] matrix;
+    private final long elapsedNanos;
+
+    BatchReport(Classification[] classifications, long[] matrix, long elapsedNanos) {
+        this.classifications = classifications;
+        this.matrix = matrix;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    static int cell(Classification label, Classification predicted) {
+        return label.ordinal() * CLASSES + predicted.ordinal();
+    }
+
+    static long[] emptyMatrix() {
+        return new long[CLASSES * CLASSES];
+    }
+
+    public int size() {
+        return classifications.length;
+    }
+
+    /**
+     * @return What the gesture at the given index of the corpus was classified as
+     */
+    public Classification getClassification(int index) {
+        return classifications[index];
+    }
+
+    /**
+     * @param label     What the gestures are known to be
+     * @param predicted What they were classified as
+     * @return Number of gestures with the given label that were classified as predicted
+     */
+    public long getCount(Classification label, Classification predicted) {
+        return matrix[cell(label, predicted)];
+    }
+
+    public long getCorrect() {
+        long correct = 0;
+        for (Classification c : Classification.values()) {
+            correct += getCount(c, c);
+        }
+        return correct;
+    }
+
+    public float getAccuracy() {
+        return size() == 0 ? 0 : (float) getCorrect() / size();
+    }
+
+    /**
+     * @return Share of the gestures classified as the class that really were, 0 if none were
+     */
+    public float getPrecision(Classification classification) {
+        long predicted = 0;
+        for (Classification label : Classification.values()) {
+            predicted += getCount(label, classification);
+        }
+        return predicted == 0 ? 0 : (float) getCount(classification, classification) / predicted;
+    }
+
+    /**
+     * @return Share of the gestures labelled as the class that were classified as it, 0 if none were
+     */
+    public float getRecall(Classification classification) {
+        long labelled = 0;
+        for (Classification predicted : Classification.values()) {
+            labelled += getCount(classification, predicted);
+        }
+        return labelled == 0 ? 0 : (float) getCount(classification, classification) / labelled;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGesturesPerSecond() {
+        return elapsedNanos == 0 ? 0 : size() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Formats the confusion matrix with one row per label and one column per classification.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder("label\\got");
+        for (Classification predicted : Classification.values()) {
+            out.append('\t').append(predicted);
+        }
+        for (Classification label : Classification.values()) {
+            out.append('\n').append(label);
+            for (Classification predicted : Classification.values()) {
+                out.append('\t').append(getCount(label, predicted));
+            }
+        }
+        return out.append("\nAccuracy: ").append(getAccuracy())
+                .append(" (").append(Math.round(getGesturesPerSecond())).append(" gestures/s)")
+                .toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+
+import java.util.List;
+
+/**
+ * Searches for the thresholds that classify a labelled corpus best, by coordinate descent.
+ * Every round tries each parameter at a few multiples of its current value while the others
+ * stay fixed, keeping whichever scores the most correct classifications, until a round no
+ * longer improves. Every candidate is scored by a BatchClassifier, so each evaluation is spread
+ * across all its workers, each with its own detector.
+ */
+public final class ThresholdTuner {
+
+    private static final float[] STEPS = {0.5f, 0.7f, 0.85f, 0.95f, 1.05f, 1.15f, 1.4f, 2.0f};
+
+    private final BatchClassifier classifier;
+    private final int maxRounds;
+
+    /**
+     * @param classifier Classifier scoring the candidates, its detectors must not override the
+     *                   ProcessLogicProvider thresholds or the profiles won't have any effect
+     * @param maxRounds  Most passes over all the parameters
+     */
+    public ThresholdTuner(BatchClassifier classifier, int maxRounds) {
+        this.classifier = classifier;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Tunes every parameter of the profile.
+     *
+     * @param gestures Finished gestures, preferably in a random access list
+     * @param labels   What each gesture is known to be
+     * @param start    Profile the search starts from, usually ThresholdProfile.DEFAULT
+     * @return The best profile found and its score
+     */
+    public TuningResult tune(List<Gesture> gestures, List<Classification> labels, ThresholdProfile start) {
+        final int[] parameters = new int[ThresholdProfile.PARAMETERS];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = i;
+        }
+        return tune(gestures, labels, start, parameters);
+    }
+
+    /**
+     * Tunes the given parameters of the profile, leaving the others as they are.
+     *
+     * @param parameters Parameters to tune, from ThresholdProfile
+     */
+    public TuningResult tune(List<Gesture> gestures, List<Classification> labels, ThresholdProfile start,
+                             int... parameters) {
+        final long begin = System.nanoTime();
+        ThresholdProfile best = start;
+        BatchReport bestReport = classifier.score(gestures, labels, best);
+        int evaluations = 1;
+        int rounds = 0;
+        boolean improved = true;
+        while (improved && rounds < maxRounds) {
+            improved = false;
+            rounds++;
+            for (int parameter : parameters) {
+                final float current = best.get(parameter);
+                for (float step : STEPS) {
+                    final float value = candidate(parameter, current, step);
+                    if (value == current) {
+                        continue;
+                    }
+                    final ThresholdProfile profile = best.with(parameter, value);
+                    final BatchReport report = classifier.score(gestures, labels, profile);
+                    evaluations++;
+                    if (report.getCorrect() > bestReport.getCorrect()) {
+                        best = profile;
+                        bestReport = report;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return new TuningResult(best, bestReport, evaluations, rounds, System.nanoTime() - begin);
+    }
+
+    /**
+     * The count of perfectly straight points is compared for equality, so only whole values
+     * of it are tried.
+     */
+    private static float candidate(int parameter, float current, float step) {
+        if (parameter == ThresholdProfile.MAX_CONCURRENT_RADS) {
+            return Math.max(1, Math.round(current * step));
+        }
+        return current * step;
+    }
+
+}
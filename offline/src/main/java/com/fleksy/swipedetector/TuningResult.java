@@ -0,0 +1,66 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+
+/**
+ * Outcome of a ThresholdTuner search: the best profile found and how it scored.
+ */
+public final class TuningResult {
+
+    private final ThresholdProfile profile;
+    private final BatchReport report;
+    private final int evaluations;
+    private final int rounds;
+    private final long elapsedNanos;
+
+    TuningResult(ThresholdProfile profile, BatchReport report, int evaluations, int rounds, long elapsedNanos) {
+        this.profile = profile;
+        this.report = report;
+        this.evaluations = evaluations;
+        this.rounds = rounds;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ThresholdProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return Score of the best profile, with its confusion matrix
+     */
+    public BatchReport getReport() {
+        return report;
+    }
+
+    /**
+     * @return Number of profiles scored against the corpus
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Formats the profile followed by the precision and recall of every class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder(profile.toString());
+        for (Classification c : Classification.values()) {
+            out.append(c).append(" precision: ").append(report.getPrecision(c))
+                    .append(" recall: ").append(report.getRecall(c)).append('\n');
+        }
+        return out.append(report).append('\n')
+                .append(evaluations).append(" profiles scored in ").append(rounds).append(" rounds, ")
+                .append(elapsedNanos / 1000000).append("ms")
+                .toString();
+    }
+
+}
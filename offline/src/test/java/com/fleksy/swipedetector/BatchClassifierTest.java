@@ -0,0 +1,95 @@
+package com.fleksy.swipedetector;
+
+import com.fleksy.swipedetector.model.Classification;
+import com.fleksy.swipedetector.model.Gesture;
+import com.fleksy.swipedetector.tool.GestureGenerator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchClassifierTest {
+
+    private static final int CORPUS = 5000;
+    private static final int TUNING_CORPUS = 1000;
+
+    @Test
+    public void parallelScoringMatchesSingleDetector() throws Exception {
+        final OfflineDetector single = createDetector();
+        final List<Gesture> gestures = new ArrayList<>();
+        final List<Classification> labels = new ArrayList<>();
+        final Classification[] expected = new Classification[CORPUS];
+        corpus(CORPUS).next(CORPUS, gestures, labels);
+        for (int i = 0; i < CORPUS; i++) {
+            expected[i] = single.classify(gestures.get(i));
+        }
+
+        final BatchClassifier classifier = new BatchClassifier(new BatchClassifier.Factory() {
+            @Override
+            public OfflineDetector create() {
+                return createDetector();
+            }
+        }, 4);
+        final BatchReport first = classifier.score(gestures, labels);
+        final BatchReport second = classifier.score(gestures, labels);
+        classifier.shutdown();
+
+        long total = 0;
+        for (int i = 0; i < CORPUS; i++) {
+            assertEquals("Gesture " + i, expected[i], first.getClassification(i));
+            assertEquals("Gesture " + i, expected[i], second.getClassification(i));
+        }
+        for (Classification label : Classification.values()) {
+            for (Classification predicted : Classification.values()) {
+                assertEquals(first.getCount(label, predicted), second.getCount(label, predicted));
+                total += first.getCount(label, predicted);
+            }
+        }
+        assertEquals(CORPUS, total);
+        assertTrue(first.getCount(Classification.PHANTOM, Classification.PHANTOM) > 0);
+        assertTrue(first.getGesturesPerSecond() > 0);
+    }
+
+    @Test
+    public void tuningKeepsTheBestScoringProfile() throws Exception {
+        final List<Gesture> gestures = new ArrayList<>();
+        final List<Classification> labels = new ArrayList<>();
+        corpus(TUNING_CORPUS).next(TUNING_CORPUS, gestures, labels);
+        final BatchClassifier classifier = new BatchClassifier(new BatchClassifier.Factory() {
+            @Override
+            public OfflineDetector create() {
+                return createDetector();
+            }
+        }, 4);
+        final ThresholdProfile start = ThresholdProfile.DEFAULT.with(ThresholdProfile.MAX_WEIGHT, 0.5f);
+        final BatchReport before = classifier.score(gestures, labels, start);
+        final TuningResult result = new ThresholdTuner(classifier, 2).tune(gestures, labels, start,
+                ThresholdProfile.MAX_WEIGHT, ThresholdProfile.MAX_STANDARD_DEVIATION);
+        final BatchReport after = classifier.score(gestures, labels, result.getProfile());
+        classifier.shutdown();
+
+        assertTrue(result.getReport().getCorrect() >= before.getCorrect());
+        assertEquals(result.getReport().getCorrect(), after.getCorrect());
+        assertEquals(start.get(ThresholdProfile.MAX_CONCURRENT_RADS),
+                result.getProfile().get(ThresholdProfile.MAX_CONCURRENT_RADS), 0);
+    }
+
+    /**
+     * Mostly swipes and ghosts, as taps leave the thresholds nothing to decide.
+     */
+    private static GestureGenerator corpus(long seed) {
+        return new GestureGenerator(seed, 1080, 400)
+                .setRate(GestureGenerator.TAP, 10)
+                .setRate(GestureGenerator.SWIPE, 45)
+                .setRate(GestureGenerator.GHOST, 45);
+    }
+
+    private static OfflineDetector createDetector() {
+        return new OfflineDetector(3.0f, 1080, 400);
+    }
+
+}